@@ -0,0 +1,105 @@
+package com.zerooneblog.api;
+
+import com.zerooneblog.api.domain.Post;
+import com.zerooneblog.api.infrastructure.persistence.NotificationRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.infrastructure.persistence.UserNotificationStateRepository;
+import com.zerooneblog.api.service.NotificationPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Keep the schema and existing rows in step with features Hibernate's ddl-auto=update cannot express
+@Component
+public class SchemaInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaInitializer.class);
+
+    // Tables whose ids come from a pooled "<table>_seq" sequence (see the entities' @SequenceGenerator)
+    private static final List<String> SEQUENCE_ID_TABLES = List.of("users", "posts", "post_media", "comments",
+            "post_likes", "notifications", "reports", "user_reports", "timeline_entries", "notification_tombstones");
+
+    private final PostRepository postRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserNotificationStateRepository notificationStateRepository;
+    private final NotificationPartitionService notificationPartitionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SchemaInitializer(PostRepository postRepository, NotificationRepository notificationRepository,
+            UserNotificationStateRepository notificationStateRepository,
+            NotificationPartitionService notificationPartitionService, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.postRepository = postRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationStateRepository = notificationStateRepository;
+        this.notificationPartitionService = notificationPartitionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Create what Hibernate's ddl-auto cannot express and backfill derived data on startup;
+    // every step is idempotent and only touches rows that still need it.
+    // Runs once all singletons exist, so Hibernate has already created the tables and sequences, but before
+    // the web server accepts connections, scheduled jobs start and startup runners run. Nothing can insert
+    // with a sequence that is not yet aligned or write notifications while the table is converted.
+    @Override
+    public void afterSingletonsInstantiated() {
+        alignIdSequences();
+        createSearchIndex();
+        createFollowerIndex();
+        notificationPartitionService.initialize();
+
+        Integer excerpts = transactionTemplate.execute(status ->
+                postRepository.backfillExcerpts(Post.EXCERPT_LENGTH));
+        if (excerpts != null && excerpts > 0) {
+            log.info("Backfilled excerpts for {} posts", excerpts);
+        }
+
+        Integer updatedAt = transactionTemplate.execute(status -> notificationRepository.backfillUpdatedAt());
+        if (updatedAt != null && updatedAt > 0) {
+            log.info("Backfilled updated_at for {} notifications", updatedAt);
+        }
+
+        Integer notificationStates = transactionTemplate.execute(status ->
+                notificationStateRepository.reconcileCounts());
+        if (notificationStates != null && notificationStates > 0) {
+            log.info("Backfilled notification counters for {} users", notificationStates);
+        }
+    }
+
+    // Generated tsvector over title (weight A) and content (weight B) backing post search, with its GIN index
+    private void createSearchIndex() {
+        jdbcTemplate.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                "GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+                "setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector)");
+    }
+
+    // The user_followers primary key leads with follower_id; fan-out and follower listings look up by the
+    // followed user, so they need the reverse order as well
+    private void createFollowerIndex() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_user_followers_following " +
+                "ON user_followers (following_id, follower_id)");
+    }
+
+    // Tables created with identity ids keep their rows: the identity is replaced by a default on the
+    // table's sequence (native INSERTs draw from it too, which is safe with the pooled optimizer since
+    // Hibernate only ever hands out ids at or below a value it fetched itself), and the sequence is moved
+    // past the highest existing id. Never moves a sequence backwards.
+    private void alignIdSequences() {
+        for (String table : SEQUENCE_ID_TABLES) {
+            String sequence = table + "_seq";
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+            jdbcTemplate.execute("SELECT setval('" + sequence + "', GREATEST((SELECT COALESCE(MAX(id), 0) FROM " +
+                    table + "), (SELECT last_value FROM " + sequence + ")))");
+        }
+    }
+}
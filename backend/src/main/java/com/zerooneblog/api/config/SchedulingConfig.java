@@ -0,0 +1,38 @@
+package com.zerooneblog.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+// Enable @Scheduled background jobs (timeline trimming, maintenance tasks) on their own thread pool, so the
+// sub-second ones (WebSocket dispatch, counter flushes) are not held up behind a long reconciliation or
+// partition run; without it they would share a single thread
+@Configuration
+@EnableScheduling
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private final int poolSize;
+
+    public SchedulingConfig(@Value("${app.scheduling.pool-size:4}") int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler scheduledJobsScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(scheduledJobsScheduler());
+    }
+}
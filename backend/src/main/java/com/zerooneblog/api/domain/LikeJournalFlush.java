@@ -0,0 +1,24 @@
+package com.zerooneblog.api.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// A like journal segment whose deltas are in posts.like_count, recorded in the transaction that wrote them so
+// a segment file outliving its flush (crash before the delete) is not replayed a second time
+@Getter
+@Setter
+@Entity
+@Table(name = "like_journal_flushes")
+public class LikeJournalFlush {
+
+    // Segment file name; unique per run (timestamp and sequence)
+    @Id
+    @Column(length = 100)
+    private String segment;
+
+    @Column(name = "flushed_at", nullable = false)
+    private Instant flushedAt;
+}
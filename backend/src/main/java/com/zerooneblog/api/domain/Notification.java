@@ -2,12 +2,18 @@ package com.zerooneblog.api.domain;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete; // Global Import
 import org.hibernate.annotations.OnDeleteAction; // Global Import
 import java.time.LocalDateTime;
 
+// Range-partitioned by month on created_at with primary key (id, created_at); see NotificationPartitionService
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_aggregate", columnList = "recipient_id, post_id, type, is_read"),
+        @Index(name = "idx_notifications_recipient_created", columnList = "recipient_id, created_at"),
+        @Index(name = "idx_notifications_recipient_updated", columnList = "recipient_id, updated_at, id")
+})
 @Data
 public class Notification {
 
@@ -18,8 +24,10 @@ public class Notification {
         NEW_POST
     }
 
+    // Larger id blocks: these rows are written in bulk by follower fan-out
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 500)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,14 +52,38 @@ public class Notification {
     @Column(nullable = false)
     private String message;
 
+    // Like/comment notifications on one post are aggregated: the sender is the latest actor, latestActors
+    // holds the most recent usernames (newest first, comma-separated) and actorCount all distinct actors seen
+    @ColumnDefault("1")
+    @Column(name = "actor_count", nullable = false)
+    private int actorCount = 1;
+
+    @Column(name = "latest_actors")
+    private String latestActors;
+
+    // Time of the earliest activity folded into an aggregate; actorCount is recounted from the likes or
+    // comments made since then, so an actor who comes back is not counted twice
+    @Column(name = "actors_since")
+    private LocalDateTime actorsSince;
+
     @Column(name = "is_read", nullable = false)
     private boolean isRead = false;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Last change (creation, aggregation, read); the delta sync position. Native updates set it themselves.
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.zerooneblog.api.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Id of a deleted notification, kept for a while so syncing clients can drop it too
+@Getter
+@Setter
+@Entity
+@Table(name = "notification_tombstones", indexes = {
+        @Index(name = "idx_notification_tombstones_recipient_deleted", columnList = "recipient_id, deleted_at"),
+        @Index(name = "idx_notification_tombstones_deleted", columnList = "deleted_at")
+})
+public class NotificationTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_tombstones_seq")
+    @SequenceGenerator(name = "notification_tombstones_seq", sequenceName = "notification_tombstones_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipient_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User recipient;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -5,6 +5,7 @@ import lombok.Setter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 import java.util.List;
@@ -13,15 +14,22 @@ import java.util.ArrayList;
 @Getter
 @Setter
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_user_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_posts_view_count", columnList = "view_count")
+})
 public class Post {
+    public static final int EXCERPT_LENGTH = 280;
+
     public enum MediaType {
         IMAGE,
         VIDEO,
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -34,9 +42,17 @@ public class Post {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Precomputed preview served by list views instead of the full content
+    @Column(name = "excerpt", length = EXCERPT_LENGTH + 1)
+    private String excerpt;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
+    // Last change to title, content or visibility (counters are maintained in SQL and do not move it)
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User author;
@@ -60,12 +76,50 @@ public class Post {
     @Column
     private Long reportedCount = 0L;
 
+    // Maintained counters, only changed through atomic SQL increments (never by entity flushes)
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount = 0;
+
+    // Flushed in batches by ViewCounterService; the unique count is a HyperLogLog estimate
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, updatable = false)
+    private long viewCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "unique_viewer_count", nullable = false, updatable = false)
+    private long uniqueViewerCount = 0;
+
     @Column(name = "is_hidden", nullable = false)
     private boolean hidden = false;
 
     @PrePersist
     protected void onCreate() {
         this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+        this.excerpt = buildExcerpt(content);
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = Instant.now();
+        this.excerpt = buildExcerpt(content);
+    }
+
+    // First EXCERPT_LENGTH characters of the content, with an ellipsis when cut
+    public static String buildExcerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        int end = EXCERPT_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end).stripTrailing() + "\u2026";
     }
 
     @Override
@@ -11,7 +11,8 @@ import lombok.Data;
 })
 public class PostLike {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_likes_seq")
+    @SequenceGenerator(name = "post_likes_seq", sequenceName = "post_likes_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ public class PostMedia {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_media_seq")
+    @SequenceGenerator(name = "post_media_seq", sequenceName = "post_media_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -11,7 +11,8 @@ import lombok.Data;
 public class PostReport {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reports_seq")
+    @SequenceGenerator(name = "reports_seq", sequenceName = "reports_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
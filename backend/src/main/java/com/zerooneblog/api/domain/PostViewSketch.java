@@ -0,0 +1,28 @@
+package com.zerooneblog.api.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Serialized HyperLogLog registers estimating the distinct viewers of one post
+@Getter
+@Setter
+@Entity
+@Table(name = "post_view_sketches")
+public class PostViewSketch {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] registers;
+}
@@ -0,0 +1,48 @@
+package com.zerooneblog.api.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// One post id in a reader's materialized home timeline (fan-out-on-write)
+@Getter
+@Setter
+@Entity
+@Table(name = "timeline_entries", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id", "post_id" })
+}, indexes = {
+        @Index(name = "idx_timeline_user_created", columnList = "user_id, post_created_at, post_id"),
+        // Dropping a post's entries on hide/delete (and the ON DELETE CASCADE from posts)
+        @Index(name = "idx_timeline_post", columnList = "post_id")
+})
+public class TimelineEntry {
+
+    // Larger id blocks: these rows are written in bulk by follower fan-out
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "timeline_entries_seq")
+    @SequenceGenerator(name = "timeline_entries_seq", sequenceName = "timeline_entries_seq", allocationSize = 500)
+    private Long id;
+
+    // Owner of the timeline (the reader)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    // Denormalized author id so unfollow can drop entries without joining posts
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    // Denormalized post creation time so the timeline is ordered by a single index
+    @Column(name = "post_created_at", nullable = false)
+    private Instant postCreatedAt;
+}
@@ -0,0 +1,31 @@
+package com.zerooneblog.api.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Marks a reader whose home timeline has been built from the people they follow, so it is seeded once
+// however empty it is or whatever fan-out reached it first
+@Getter
+@Setter
+@Entity
+@Table(name = "timeline_seeds")
+public class TimelineSeed {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "seeded_at", nullable = false)
+    private Instant seededAt;
+}
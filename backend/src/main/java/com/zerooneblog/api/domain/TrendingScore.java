@@ -0,0 +1,33 @@
+package com.zerooneblog.api.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Checkpointed trending score of a post, as it stood at checkpointedAt (decay continues from there on load)
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "trending_scores")
+public class TrendingScore {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "checkpointed_at", nullable = false)
+    private Instant checkpointedAt;
+
+    public TrendingScore(Long postId, double score, Instant checkpointedAt) {
+        this.postId = postId;
+        this.score = score;
+        this.checkpointedAt = checkpointedAt;
+    }
+}
@@ -2,6 +2,7 @@ package com.zerooneblog.api.domain;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -17,7 +18,8 @@ import java.time.Instant;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -88,6 +90,15 @@ public class User {
     @Column
     private Long reportingCount = 0L;
 
+    // Maintained counters, only changed through atomic SQL increments (never by entity flushes)
+    @ColumnDefault("0")
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    private long followerCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "following_count", nullable = false, updatable = false)
+    private long followingCount = 0;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = Instant.now();
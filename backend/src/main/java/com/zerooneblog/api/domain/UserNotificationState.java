@@ -0,0 +1,42 @@
+package com.zerooneblog.api.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Per-user notification counters, kept in step with the notifications table by atomic SQL updates, and the
+// read watermark
+@Getter
+@Setter
+@Entity
+@Table(name = "user_notification_state")
+public class UserNotificationState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ColumnDefault("0")
+    @Column(name = "total_count", nullable = false, updatable = false)
+    private long totalCount;
+
+    @ColumnDefault("0")
+    @Column(name = "unread_count", nullable = false, updatable = false)
+    private long unreadCount;
+
+    // Notifications created at or before this are read ("mark all as read"); is_read on a row only records
+    // notifications read one by one after it
+    @Column(name = "read_up_to", updatable = false)
+    private LocalDateTime readUpTo;
+}
@@ -10,7 +10,8 @@ import lombok.Data;
 @Table(name = "user_reports")
 public class UserReport {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_reports_seq")
+    @SequenceGenerator(name = "user_reports_seq", sequenceName = "user_reports_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
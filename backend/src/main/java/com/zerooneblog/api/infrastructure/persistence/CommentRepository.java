@@ -2,11 +2,30 @@ package com.zerooneblog.api.infrastructure.persistence;
 
 import com.zerooneblog.api.domain.Comment;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByPostId(Long postId, Pageable pageable);
+
+    // Distinct users other than :excludedUserId who commented on the post at or after :since
+    @Query("SELECT COUNT(DISTINCT c.user.id) FROM Comment c WHERE c.post.id = :postId " +
+            "AND c.user.id <> :excludedUserId AND c.createdAt >= :since")
+    long countCommentersSince(@Param("postId") Long postId, @Param("excludedUserId") Long excludedUserId,
+            @Param("since") LocalDateTime since);
+
+    // Per-post sum of comments since :since, each decayed by its age (half-life in seconds); used once to
+    // seed the trending scores when no checkpoint exists
+    @Query(value = "SELECT c.post_id AS postId, " +
+            "SUM(power(0.5, EXTRACT(EPOCH FROM (LOCALTIMESTAMP - c.created_at)) / :halfLifeSeconds)) AS score " +
+            "FROM comments c WHERE c.created_at >= :since GROUP BY c.post_id", nativeQuery = true)
+    List<PostScore> sumDecayedComments(@Param("since") LocalDateTime since,
+            @Param("halfLifeSeconds") double halfLifeSeconds);
 }
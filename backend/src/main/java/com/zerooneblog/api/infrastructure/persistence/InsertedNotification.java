@@ -0,0 +1,14 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// A notification row written by a bulk insert, with what is needed to push it and the recipient's new counts
+public interface InsertedNotification {
+    Long getId();
+
+    Long getRecipientId();
+
+    String getRecipientUsername();
+
+    long getTotalCount();
+
+    long getUnreadCount();
+}
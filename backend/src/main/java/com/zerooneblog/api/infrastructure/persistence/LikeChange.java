@@ -0,0 +1,16 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// Result of a single-statement like/unlike: the target post, its like count after the statement and,
+// when a like row was actually inserted or deleted, that like's creation time
+public interface LikeChange {
+    Long getPostId();
+
+    Long getAuthorId();
+
+    String getTitle();
+
+    long getLikeCount();
+
+    // Epoch millis of the inserted/deleted like, null when the statement changed nothing
+    Long getLikedAtMillis();
+}
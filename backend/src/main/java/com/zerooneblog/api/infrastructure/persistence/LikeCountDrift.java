@@ -0,0 +1,10 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// Projection of a post whose stored like_count differs from its post_likes rows
+public interface LikeCountDrift {
+    Long getPostId();
+
+    long getStoredCount();
+
+    long getActualCount();
+}
@@ -0,0 +1,8 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// Maintained notification counters of one user
+public interface NotificationCounts {
+    long getTotalCount();
+
+    long getUnreadCount();
+}
@@ -1,5 +1,10 @@
 package com.zerooneblog.api.infrastructure.persistence;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,16 +21,82 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Page<Notification> findByRecipientOrderByCreatedAtDesc(User recipient, Pageable pageable);
 
-    long countByRecipient(User recipient);
+    // Read state is the row's flag or the recipient's read watermark (readUpTo, see UserNotificationState)
+    @Query(value = "SELECT n FROM Notification n WHERE n.recipient = :recipient AND n.isRead = false " +
+            "AND n.createdAt > :readUpTo ORDER BY n.createdAt DESC",
+            countQuery = "SELECT COUNT(n) FROM Notification n WHERE n.recipient = :recipient AND n.isRead = false " +
+            "AND n.createdAt > :readUpTo")
+    Page<Notification> findUnreadByRecipient(@Param("recipient") User recipient,
+            @Param("readUpTo") LocalDateTime readUpTo, Pageable pageable);
+
+    @Query(value = "SELECT n FROM Notification n WHERE n.recipient = :recipient " +
+            "AND (n.isRead = true OR n.createdAt <= :readUpTo) ORDER BY n.createdAt DESC",
+            countQuery = "SELECT COUNT(n) FROM Notification n WHERE n.recipient = :recipient " +
+            "AND (n.isRead = true OR n.createdAt <= :readUpTo)")
+    Page<Notification> findReadByRecipient(@Param("recipient") User recipient,
+            @Param("readUpTo") LocalDateTime readUpTo, Pageable pageable);
+
+    // Delta sync: the recipient's notifications changed after the (updatedAt, id) position, keyset ordered
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId " +
+            "AND (n.updatedAt > :updatedAt OR (n.updatedAt = :updatedAt AND n.id > :id)) ORDER BY n.updatedAt, n.id")
+    List<Notification> findChangedSince(@Param("recipientId") Long recipientId,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Limit limit);
 
-    long countByRecipientAndIsRead(User recipient, boolean isRead);
+    // Newest unread notification of this kind on the post still inside the aggregation window; only the
+    // activity flush in NotificationService writes aggregates, so no lock is taken
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND n.post.id = :postId " +
+            "AND n.type = :type AND n.isRead = false AND n.createdAt >= :since AND NOT EXISTS " +
+            "(SELECT s FROM UserNotificationState s WHERE s.userId = :recipientId AND s.readUpTo >= n.createdAt) " +
+            "ORDER BY n.createdAt DESC")
+    List<Notification> findOpenAggregate(@Param("recipientId") Long recipientId, @Param("postId") Long postId,
+            @Param("type") Notification.NotificationType type, @Param("since") LocalDateTime since, Limit limit);
+
+    // Write NEW_POST notifications for the next chunk of the author's followers (keyset on follower id) and bump
+    // their counters in one statement, returning the new rows with each recipient's username and counts.
+    // Rows carry the chunk's own write time rather than the publish time: delta sync tokens issued mid fan-out
+    // still see later chunks, and a "mark all as read" done while the fan-out was queued does not cover them
+    @Query(value = "WITH inserted AS (INSERT INTO notifications " +
+            "(recipient_id, sender_id, post_id, type, message, is_read, created_at, updated_at, actor_count, " +
+            "latest_actors) SELECT uf.follower_id, :authorId, :postId, 'NEW_POST', :message, false, :insertedAt, " +
+            ":insertedAt, 1, :authorUsername " +
+            "FROM user_followers uf WHERE uf.following_id = :authorId AND uf.follower_id > :afterFollowerId " +
+            "AND uf.follower_id <> :authorId ORDER BY uf.follower_id LIMIT :chunkSize " +
+            "RETURNING id, recipient_id), " +
+            "counted AS (INSERT INTO user_notification_state (user_id, total_count, unread_count) " +
+            "SELECT recipient_id, 1, 1 FROM inserted ON CONFLICT (user_id) DO UPDATE SET " +
+            "total_count = user_notification_state.total_count + 1, " +
+            "unread_count = user_notification_state.unread_count + 1 " +
+            "RETURNING user_id, total_count, unread_count) " +
+            "SELECT i.id AS id, i.recipient_id AS recipientId, u.username AS recipientUsername, " +
+            "c.total_count AS totalCount, c.unread_count AS unreadCount " +
+            "FROM inserted i JOIN users u ON u.id = i.recipient_id JOIN counted c ON c.user_id = i.recipient_id " +
+            "ORDER BY i.recipient_id", nativeQuery = true)
+    List<InsertedNotification> insertFollowerNotifications(@Param("authorId") Long authorId,
+            @Param("authorUsername") String authorUsername, @Param("postId") Long postId,
+            @Param("message") String message, @Param("insertedAt") LocalDateTime insertedAt,
+            @Param("afterFollowerId") Long afterFollowerId, @Param("chunkSize") int chunkSize);
+
+    // 1 only for the call that actually flipped the notification to read (not already under the watermark)
+    @Modifying
+    @Query(value = "UPDATE notifications n SET is_read = true, updated_at = :updatedAt " +
+            "WHERE n.id = :id AND n.is_read = false " +
+            "AND NOT EXISTS (SELECT 1 FROM user_notification_state us " +
+            "WHERE us.user_id = n.recipient_id AND us.read_up_to >= n.created_at)", nativeQuery = true)
+    int markAsRead(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
 
-    Page<Notification> findByRecipientAndIsReadOrderByCreatedAtDesc(
-            User recipient,
-            boolean isRead,
-            Pageable pageable);
+    // Delete a recipient's notifications, leaving tombstones for delta sync and reporting how many went and
+    // how many of those were unread
+    @Query(value = "WITH deleted AS (DELETE FROM notifications WHERE id IN (:ids) AND recipient_id = :recipientId " +
+            "RETURNING id, recipient_id, is_read, created_at), " +
+            "tombstones AS (INSERT INTO notification_tombstones (recipient_id, notification_id, deleted_at) " +
+            "SELECT recipient_id, id, :deletedAt FROM deleted) SELECT COUNT(*) AS totalCount, " +
+            "COUNT(*) FILTER (WHERE " + UserNotificationStateRepository.UNREAD + ") AS unreadCount " +
+            "FROM deleted n LEFT JOIN user_notification_state us ON us.user_id = n.recipient_id", nativeQuery = true)
+    NotificationCounts deleteForRecipient(@Param("ids") Collection<Long> ids, @Param("recipientId") Long recipientId,
+            @Param("deletedAt") LocalDateTime deletedAt);
 
+    // Give notifications written before updated_at existed their creation time as last change
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :userId AND n.isRead = false")
-    void markAllAsReadForUser(@Param("userId") Long userId);
+    @Query(value = "UPDATE notifications SET updated_at = created_at WHERE updated_at IS NULL", nativeQuery = true)
+    int backfillUpdatedAt();
 }
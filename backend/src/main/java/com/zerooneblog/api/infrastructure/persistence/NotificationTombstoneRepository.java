@@ -0,0 +1,41 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.zerooneblog.api.domain.NotificationTombstone;
+
+@Repository
+public interface NotificationTombstoneRepository extends JpaRepository<NotificationTombstone, Long> {
+
+    // Ids deleted after the sync position, oldest first
+    @Query("SELECT t.notificationId FROM NotificationTombstone t WHERE t.recipient.id = :recipientId " +
+            "AND t.deletedAt > :since ORDER BY t.deletedAt")
+    List<Long> findDeletedIdsSince(@Param("recipientId") Long recipientId, @Param("since") LocalDateTime since,
+            Limit limit);
+
+    // Notifications on a post (or on a deleted user's posts, or sent by them) cascade away without passing
+    // through NotificationService; record them before the delete
+    @Modifying
+    @Query(value = "INSERT INTO notification_tombstones (recipient_id, notification_id, deleted_at) " +
+            "SELECT recipient_id, id, :deletedAt FROM notifications WHERE post_id = :postId", nativeQuery = true)
+    int recordNotificationsOfPost(@Param("postId") Long postId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_tombstones (recipient_id, notification_id, deleted_at) " +
+            "SELECT recipient_id, id, :deletedAt FROM notifications WHERE recipient_id <> :userId " +
+            "AND (sender_id = :userId OR post_id IN (SELECT id FROM posts WHERE user_id = :userId))",
+            nativeQuery = true)
+    int recordNotificationsOfUser(@Param("userId") Long userId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("DELETE FROM NotificationTombstone t WHERE t.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,10 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+import java.time.Instant;
+
+// Projection of a post's keyset position: what a cursor page needs to point past it
+public interface PostKey {
+    Long getId();
+
+    Instant getCreatedAt();
+}
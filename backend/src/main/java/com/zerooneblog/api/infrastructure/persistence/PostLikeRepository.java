@@ -1,15 +1,72 @@
 package com.zerooneblog.api.infrastructure.persistence;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.zerooneblog.api.domain.PostLike;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
-    boolean existsByUserIdAndPostId(Long userId, Long postId);
+    // Visible target post; hidden posts only resolve for admins
+    String TARGET_POST = "WITH target AS (SELECT p.id, p.user_id, p.title, p.like_count FROM posts p " +
+            "WHERE p.id = :postId AND (p.is_hidden = false OR :admin = true)), ";
+    String INSERT_LIKE = "changed AS (INSERT INTO post_likes (user_id, post_id, created_at) " +
+            "SELECT :userId, t.id, :likedAt FROM target t ON CONFLICT (user_id, post_id) DO NOTHING " +
+            "RETURNING post_id, created_at) ";
+    String DELETE_LIKE = "changed AS (DELETE FROM post_likes pl USING target t " +
+            "WHERE pl.post_id = t.id AND pl.user_id = :userId RETURNING pl.post_id, pl.created_at) ";
+    String LIKED_AT = "(SELECT CAST(EXTRACT(EPOCH FROM created_at) * 1000 AS bigint) FROM changed) AS likedAtMillis ";
+    // Counted variants also move posts.like_count and report the count after the change
+    String COUNTED_RESULT = "SELECT t.id AS postId, t.user_id AS authorId, t.title AS title, " +
+            "COALESCE((SELECT like_count FROM counted), t.like_count) AS likeCount, " + LIKED_AT + "FROM target t";
+    // Deferred variants leave posts.like_count to the write-behind buffer and report the stored count
+    String DEFERRED_RESULT = "SELECT t.id AS postId, t.user_id AS authorId, t.title AS title, " +
+            "t.like_count AS likeCount, " + LIKED_AT + "FROM target t";
+
+    // Like, counter increment and new count in one statement; no row means the post is missing or hidden,
+    // a null likedAtMillis means the user had already liked it
+    @Query(value = TARGET_POST + INSERT_LIKE + ", counted AS (UPDATE posts p SET like_count = p.like_count + 1 " +
+            "FROM changed c WHERE p.id = c.post_id RETURNING p.like_count) " + COUNTED_RESULT, nativeQuery = true)
+    Optional<LikeChange> insertLike(@Param("postId") Long postId, @Param("userId") Long userId,
+            @Param("admin") boolean admin, @Param("likedAt") Instant likedAt);
+
+    // Unlike counterpart of insertLike; a null likedAtMillis means there was no like to remove
+    @Query(value = TARGET_POST + DELETE_LIKE + ", counted AS (UPDATE posts p SET like_count = p.like_count - 1 " +
+            "FROM changed c WHERE p.id = c.post_id RETURNING p.like_count) " + COUNTED_RESULT, nativeQuery = true)
+    Optional<LikeChange> deleteLike(@Param("postId") Long postId, @Param("userId") Long userId,
+            @Param("admin") boolean admin);
 
-    long countByPostId(Long postId);
+    // insertLike without touching the hot posts row
+    @Query(value = TARGET_POST + INSERT_LIKE + DEFERRED_RESULT, nativeQuery = true)
+    Optional<LikeChange> insertLikeDeferred(@Param("postId") Long postId, @Param("userId") Long userId,
+            @Param("admin") boolean admin, @Param("likedAt") Instant likedAt);
+
+    // deleteLike without touching the hot posts row
+    @Query(value = TARGET_POST + DELETE_LIKE + DEFERRED_RESULT, nativeQuery = true)
+    Optional<LikeChange> deleteLikeDeferred(@Param("postId") Long postId, @Param("userId") Long userId,
+            @Param("admin") boolean admin);
+
+    boolean existsByUserIdAndPostId(Long userId, Long postId);
 
     Optional<PostLike> findByUserIdAndPostId(Long userId, Long postId);
+
+    // Users other than :excludedUserId who like the post and liked it at or after :since
+    @Query("SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = :postId AND pl.user.id <> :excludedUserId " +
+            "AND pl.createdAt >= :since")
+    long countLikersSince(@Param("postId") Long postId, @Param("excludedUserId") Long excludedUserId,
+            @Param("since") Instant since);
+
+    @Query("SELECT pl.post.id FROM PostLike pl WHERE pl.user.id = :userId")
+    List<Long> findAllLikedPostIds(@Param("userId") Long userId);
+
+    // Per-post sum of likes since :since, each decayed by its age (half-life in seconds); used once to
+    // seed the trending scores when no checkpoint exists
+    @Query(value = "SELECT pl.post_id AS postId, " +
+            "SUM(power(0.5, EXTRACT(EPOCH FROM (now() - pl.created_at)) / :halfLifeSeconds)) AS score " +
+            "FROM post_likes pl WHERE pl.created_at >= :since GROUP BY pl.post_id", nativeQuery = true)
+    List<PostScore> sumDecayedLikes(@Param("since") Instant since, @Param("halfLifeSeconds") double halfLifeSeconds);
 }
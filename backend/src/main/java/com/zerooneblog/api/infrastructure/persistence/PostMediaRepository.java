@@ -1,5 +1,6 @@
 package com.zerooneblog.api.infrastructure.persistence;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.*;
@@ -14,4 +15,7 @@ public interface PostMediaRepository extends JpaRepository<PostMedia, Long> {
     @Query("SELECT pm FROM PostMedia pm WHERE pm.post.id = :postId ORDER BY pm.displayOrder ASC")
     List<PostMedia> findByPostId(@Param("postId") Long postId);
 
+    @Query("SELECT pm FROM PostMedia pm WHERE pm.post.id IN :postIds ORDER BY pm.post.id ASC, pm.displayOrder ASC")
+    List<PostMedia> findByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
 }
@@ -2,6 +2,8 @@ package com.zerooneblog.api.infrastructure.persistence;
 
 import com.zerooneblog.api.domain.Post;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.*;
@@ -11,19 +13,143 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.likes WHERE p.hidden = false", countQuery = "SELECT COUNT(p) FROM Post p WHERE p.hidden = false")
-    Page<Post> findAllWithDetails(Pageable pageable);
-
     Page<Post> findAll(Pageable pageable);
 
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author u LEFT JOIN FETCH p.likes WHERE u.id IN :userIds AND p.hidden = false", countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author.id IN :userIds AND p.hidden = false")
-    Page<Post> findPostsByUserIdIn(@Param("userIds") List<Long> userIds, Pageable pageable);
+    // Listing phase 1: ordered post ids only (no joins, bounded by page size)
+    @Query(value = "SELECT p.id FROM Post p WHERE p.hidden = false ORDER BY p.createdAt DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.hidden = false")
+    Page<Long> findPublicPostIds(Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Post p ORDER BY p.createdAt DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<Long> findAllPostIds(Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Post p WHERE p.author.id = :userId AND p.hidden = false " +
+            "ORDER BY p.createdAt DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author.id = :userId AND p.hidden = false")
+    Page<Long> findPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Post p WHERE p.hidden = true ORDER BY p.createdAt DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.hidden = true")
+    Page<Long> findHiddenPostIds(Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Post p ORDER BY p.viewCount DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<Long> findMostViewedPostIds(Pageable pageable);
+
+    // Keyset pagination: newest public post keys, ordered by (createdAt, id) descending
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p WHERE p.hidden = false " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findLatestPublicPostKeys(Limit limit);
 
-    @Query("SELECT p FROM Post p WHERE p.author.id = :userId AND p.hidden = false")
-    Page<Post> findByUserId(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p WHERE p.hidden = false " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findPublicPostKeysBefore(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    // Listing phase 2: hydrate just the ids of one page as lightweight summaries (no content, no collections)
+    @Query("SELECT p.id AS id, p.title AS title, p.excerpt AS excerpt, p.createdAt AS createdAt, " +
+            "a.id AS authorId, a.username AS authorUsername, p.likeCount AS likeCount, " +
+            "p.commentCount AS commentCount, p.viewCount AS viewCount, p.uniqueViewerCount AS uniqueViewerCount, " +
+            "p.reportedCount AS reportedCount, p.hidden AS hidden " +
+            "FROM Post p JOIN p.author a WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
     long countByHidden(boolean hidden);
 
-    @Query(value = "SELECT p FROM Post p LEFT JOIN FETCH p.author WHERE p.hidden = true", countQuery = "SELECT COUNT(p) FROM Post p WHERE p.hidden = true")
-    Page<Post> findAllHiddenPosts(Pageable pageable);
+    boolean existsByIdAndHidden(Long id, boolean hidden);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids AND p.hidden = false")
+    List<Long> findVisibleIdsIn(@Param("ids") Collection<Long> ids);
+
+    // Searchable text for the in-memory search index, loaded in id order
+    @Query("SELECT p.id AS id, p.title AS title, p.content AS content, p.hidden AS hidden FROM Post p " +
+            "WHERE p.id > :afterId ORDER BY p.id")
+    List<PostText> findPostTextsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT p.id AS id, p.title AS title, p.content AS content, p.hidden AS hidden FROM Post p " +
+            "WHERE p.id IN :ids")
+    List<PostText> findPostTextsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Post p WHERE p.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") Instant since);
+
+    @Query("SELECT p.id FROM Post p")
+    List<Long> findAllIds();
+
+    // Full-text search over the generated posts.search_vector column (GIN indexed, see SchemaInitializer).
+    // Matches are ranked and cut to one page first; only that page is run through ts_headline, on
+    // HTML-escaped content so the <mark> tags are the only markup in the snippet.
+    String SEARCH_MATCHES = "SELECT p.id, p.content, ts_rank(p.search_vector, q.query) AS rank FROM posts p " +
+            "CROSS JOIN websearch_to_tsquery('english', :query) AS q(query) " +
+            "WHERE p.search_vector @@ q.query AND (CAST(:includeHidden AS boolean) OR p.is_hidden = false) ";
+    String SEARCH_PAGE = "ORDER BY rank DESC, p.id DESC LIMIT :limit";
+    String SEARCH_HEADLINE = "SELECT s.id AS id, s.rank AS rank, ts_headline('english', " +
+            "replace(replace(replace(s.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), " +
+            "websearch_to_tsquery('english', :query), " +
+            "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=25, MinWords=8') AS snippet FROM (";
+    String SEARCH_ORDER = ") s ORDER BY s.rank DESC, s.id DESC";
+
+    @Query(value = SEARCH_HEADLINE + SEARCH_MATCHES + SEARCH_PAGE + SEARCH_ORDER, nativeQuery = true)
+    List<PostSearchHit> searchPosts(@Param("query") String query, @Param("includeHidden") boolean includeHidden,
+            @Param("limit") int limit);
+
+    @Query(value = SEARCH_HEADLINE + SEARCH_MATCHES +
+            "AND (ts_rank(p.search_vector, q.query) < CAST(:rank AS real) " +
+            "OR (ts_rank(p.search_vector, q.query) = CAST(:rank AS real) AND p.id < :id)) " +
+            SEARCH_PAGE + SEARCH_ORDER, nativeQuery = true)
+    List<PostSearchHit> searchPostsAfter(@Param("query") String query, @Param("includeHidden") boolean includeHidden,
+            @Param("rank") float rank, @Param("id") Long id, @Param("limit") int limit);
+
+    // Fill the excerpt of posts written before the column existed
+    @Modifying
+    @Query(value = "UPDATE posts SET excerpt = CASE WHEN char_length(content) <= :length THEN content " +
+            "ELSE rtrim(left(content, :length)) || '\u2026' END WHERE excerpt IS NULL", nativeQuery = true)
+    int backfillExcerpts(@Param("length") int length);
+
+    // Atomic counter updates
+    @Modifying
+    @Query(value = "UPDATE posts SET like_count = like_count + :delta WHERE id = :postId", nativeQuery = true)
+    int incrementLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE posts SET comment_count = comment_count + :delta WHERE id = :postId", nativeQuery = true)
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // Undo the likes and comments of a user who is about to be deleted
+    @Modifying
+    @Query(value = "UPDATE posts SET like_count = like_count - 1 " +
+            "WHERE id IN (SELECT pl.post_id FROM post_likes pl WHERE pl.user_id = :userId)", nativeQuery = true)
+    int decrementLikeCountsForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE posts p SET comment_count = p.comment_count - c.cnt " +
+            "FROM (SELECT post_id, COUNT(*) AS cnt FROM comments WHERE user_id = :userId GROUP BY post_id) c " +
+            "WHERE p.id = c.post_id", nativeQuery = true)
+    int decrementCommentCountsForUser(@Param("userId") Long userId);
+
+    // Reconciliation: repair counters that drifted from the source tables
+    @Modifying
+    @Query(value = "UPDATE posts p SET like_count = c.cnt " +
+            "FROM (SELECT p2.id, COUNT(pl.id) AS cnt FROM posts p2 LEFT JOIN post_likes pl ON pl.post_id = p2.id " +
+            "GROUP BY p2.id) c WHERE p.id = c.id AND p.like_count <> c.cnt", nativeQuery = true)
+    int reconcileLikeCounts();
+
+    // Write-behind variant: read the drift first so posts with buffered deltas can be left out of the repair
+    @Query(value = "SELECT p.id AS postId, p.like_count AS storedCount, c.cnt AS actualCount FROM posts p " +
+            "JOIN (SELECT p2.id, COUNT(pl.id) AS cnt FROM posts p2 LEFT JOIN post_likes pl ON pl.post_id = p2.id " +
+            "GROUP BY p2.id) c ON c.id = p.id WHERE p.like_count <> c.cnt", nativeQuery = true)
+    List<LikeCountDrift> findLikeCountDrift();
+
+    @Modifying
+    @Query(value = "UPDATE posts SET like_count = :actualCount WHERE id = :postId AND like_count = :storedCount",
+            nativeQuery = true)
+    int repairLikeCount(@Param("postId") Long postId, @Param("storedCount") long storedCount,
+            @Param("actualCount") long actualCount);
+
+    @Modifying
+    @Query(value = "UPDATE posts p SET comment_count = c.cnt " +
+            "FROM (SELECT p2.id, COUNT(cm.id) AS cnt FROM posts p2 LEFT JOIN comments cm ON cm.post_id = p2.id " +
+            "GROUP BY p2.id) c WHERE p.id = c.id AND p.comment_count <> c.cnt", nativeQuery = true)
+    int reconcileCommentCounts();
 }
@@ -0,0 +1,8 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// Projection of an aggregated per-post score
+public interface PostScore {
+    Long getPostId();
+
+    Double getScore();
+}
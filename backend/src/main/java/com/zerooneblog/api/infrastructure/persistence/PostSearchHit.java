@@ -0,0 +1,10 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// Projection of one full-text search match: the post id, its rank and a highlighted content fragment
+public interface PostSearchHit {
+    Long getId();
+
+    Float getRank();
+
+    String getSnippet();
+}
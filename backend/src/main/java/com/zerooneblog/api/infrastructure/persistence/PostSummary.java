@@ -0,0 +1,30 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+import java.time.Instant;
+
+// Projection used by post list views: only the columns a feed card needs
+public interface PostSummary {
+    Long getId();
+
+    String getTitle();
+
+    String getExcerpt();
+
+    Instant getCreatedAt();
+
+    Long getAuthorId();
+
+    String getAuthorUsername();
+
+    long getLikeCount();
+
+    long getCommentCount();
+
+    long getViewCount();
+
+    long getUniqueViewerCount();
+
+    Long getReportedCount();
+
+    boolean getHidden();
+}
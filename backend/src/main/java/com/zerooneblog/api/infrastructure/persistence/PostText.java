@@ -0,0 +1,12 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// Projection with the searchable text of a post, used to (re)build the in-memory search index
+public interface PostText {
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+    boolean getHidden();
+}
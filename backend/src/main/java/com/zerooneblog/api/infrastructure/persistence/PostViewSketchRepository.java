@@ -0,0 +1,10 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.zerooneblog.api.domain.PostViewSketch;
+
+@Repository
+public interface PostViewSketchRepository extends JpaRepository<PostViewSketch, Long> {
+}
@@ -0,0 +1,99 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.zerooneblog.api.domain.TimelineEntry;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    // Home feed = pushed timeline entries UNION the posts of followed "pulled" authors (follower count at or
+    // above :threshold), merged at read time; UNION also drops posts present in both sources. Each branch is
+    // cut to the requested window first so the merge never scans a whole timeline.
+    String TIMELINE_BRANCH = "SELECT t.post_id AS id, t.post_created_at AS created_at FROM timeline_entries t " +
+            "JOIN posts p ON p.id = t.post_id WHERE t.user_id = :userId AND p.is_hidden = false ";
+    String TIMELINE_ORDER = "ORDER BY t.post_created_at DESC, t.post_id DESC ";
+    String PULLED_BRANCH = "SELECT p.id AS id, p.created_at AS created_at FROM posts p " +
+            "JOIN user_followers uf ON uf.following_id = p.user_id JOIN users a ON a.id = p.user_id " +
+            "WHERE uf.follower_id = :userId AND a.follower_count >= :threshold AND p.is_hidden = false ";
+    String PULLED_ORDER = "ORDER BY p.created_at DESC, p.id DESC ";
+    String FEED_ORDER = "ORDER BY f.created_at DESC, f.id DESC ";
+
+    @Query(value = "SELECT f.id FROM ((" + TIMELINE_BRANCH + TIMELINE_ORDER + "LIMIT :window) UNION (" +
+            PULLED_BRANCH + PULLED_ORDER + "LIMIT :window)) f " + FEED_ORDER + "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Long> findFeedPostIds(@Param("userId") Long userId, @Param("threshold") long threshold,
+            @Param("window") long window, @Param("offset") long offset, @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM (" + TIMELINE_BRANCH + "UNION " + PULLED_BRANCH + ") f",
+            nativeQuery = true)
+    long countFeedPosts(@Param("userId") Long userId, @Param("threshold") long threshold);
+
+    @Query(value = "SELECT f.id AS id, f.created_at AS createdAt FROM ((" + TIMELINE_BRANCH + TIMELINE_ORDER +
+            "LIMIT :limit) UNION (" + PULLED_BRANCH + PULLED_ORDER + "LIMIT :limit)) f " + FEED_ORDER + "LIMIT :limit",
+            nativeQuery = true)
+    List<PostKey> findLatestFeedPostKeys(@Param("userId") Long userId, @Param("threshold") long threshold,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT f.id AS id, f.created_at AS createdAt FROM ((" + TIMELINE_BRANCH +
+            "AND (t.post_created_at < :createdAt OR (t.post_created_at = :createdAt AND t.post_id < :id)) " +
+            TIMELINE_ORDER + "LIMIT :limit) UNION (" + PULLED_BRANCH +
+            "AND (p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id)) " +
+            PULLED_ORDER + "LIMIT :limit)) f " + FEED_ORDER + "LIMIT :limit",
+            nativeQuery = true)
+    List<PostKey> findFeedPostKeysBefore(@Param("userId") Long userId, @Param("threshold") long threshold,
+            @Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    // Push a post into the timeline of every follower of its author in one statement, returning the readers
+    // whose timeline grew
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, post_created_at) " +
+            "SELECT uf.follower_id, :postId, :authorId, :createdAt FROM user_followers uf " +
+            "WHERE uf.following_id = :authorId " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING RETURNING user_id", nativeQuery = true)
+    List<Long> fanOutPost(@Param("postId") Long postId, @Param("authorId") Long authorId,
+            @Param("createdAt") Instant createdAt);
+
+    // Copy the latest posts of one author into a single reader's timeline (used on follow)
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, post_created_at) " +
+            "SELECT :userId, p.id, p.user_id, p.created_at FROM posts p " +
+            "WHERE p.user_id = :authorId AND p.is_hidden = false " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int backfillFromAuthor(@Param("userId") Long userId, @Param("authorId") Long authorId,
+            @Param("limit") int limit);
+
+    // Build a reader's timeline from scratch out of the latest posts of everyone they follow
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, post_created_at) " +
+            "SELECT :userId, p.id, p.user_id, p.created_at FROM posts p " +
+            "WHERE p.user_id IN (SELECT uf.following_id FROM user_followers uf WHERE uf.follower_id = :userId) " +
+            "AND p.is_hidden = false " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int seedTimeline(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.user.id = :userId AND t.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    // Drop everything past the newest :maxLength entries of the given readers' timelines; each window walks
+    // one reader's slice of idx_timeline_user_created rather than the whole table
+    @Modifying
+    @Query(value = "DELETE FROM timeline_entries WHERE id IN (" +
+            "SELECT id FROM (SELECT t.id, ROW_NUMBER() OVER (PARTITION BY t.user_id " +
+            "ORDER BY t.post_created_at DESC, t.post_id DESC) AS rn FROM timeline_entries t " +
+            "WHERE t.user_id IN (:userIds)) ranked WHERE ranked.rn > :maxLength)", nativeQuery = true)
+    int trimTimelines(@Param("userIds") Collection<Long> userIds, @Param("maxLength") int maxLength);
+}
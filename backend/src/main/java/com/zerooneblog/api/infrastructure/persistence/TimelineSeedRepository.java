@@ -0,0 +1,21 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.zerooneblog.api.domain.TimelineSeed;
+
+@Repository
+public interface TimelineSeedRepository extends JpaRepository<TimelineSeed, Long> {
+
+    // 1 only for the call that claimed the seeding, so concurrent first reads seed once
+    @Modifying
+    @Query(value = "INSERT INTO timeline_seeds (user_id, seeded_at) VALUES (:userId, :seededAt) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int markSeeded(@Param("userId") Long userId, @Param("seededAt") Instant seededAt);
+}
@@ -0,0 +1,78 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.zerooneblog.api.domain.UserNotificationState;
+
+@Repository
+public interface UserNotificationStateRepository extends JpaRepository<UserNotificationState, Long> {
+
+    // A notification n is unread unless flagged read or created at or before its recipient's (us) watermark
+    String UNREAD = "n.is_read = false AND (us.read_up_to IS NULL OR n.created_at > us.read_up_to)";
+
+    @Query("SELECT s.totalCount AS totalCount, s.unreadCount AS unreadCount FROM UserNotificationState s " +
+            "WHERE s.user.username = :username")
+    Optional<NotificationCounts> findCountsByUsername(@Param("username") String username);
+
+    // Atomic counter updates; a missing row is created (a user's first notification)
+    @Modifying
+    @Query(value = "INSERT INTO user_notification_state (user_id, total_count, unread_count) " +
+            "VALUES (:userId, :total, :unread) ON CONFLICT (user_id) DO UPDATE SET " +
+            "total_count = user_notification_state.total_count + EXCLUDED.total_count, " +
+            "unread_count = user_notification_state.unread_count + EXCLUDED.unread_count", nativeQuery = true)
+    int addCounts(@Param("userId") Long userId, @Param("total") long total, @Param("unread") long unread);
+
+    // Recipient counts of the notifications matching a WHERE clause on n, for subtracting them before they go
+    String COUNTS_BY_RECIPIENT = "UPDATE user_notification_state s SET total_count = s.total_count - c.total, " +
+            "unread_count = s.unread_count - c.unread " +
+            "FROM (SELECT n.recipient_id, COUNT(*) AS total, COUNT(*) FILTER (WHERE " + UNREAD + ") AS unread " +
+            "FROM notifications n LEFT JOIN user_notification_state us ON us.user_id = n.recipient_id WHERE ";
+    String BY_RECIPIENT = " GROUP BY n.recipient_id) c WHERE s.user_id = c.recipient_id";
+
+    // Notifications on a post cascade away with it; take them off their recipients' counters first
+    @Modifying
+    @Query(value = COUNTS_BY_RECIPIENT + "n.post_id = :postId" + BY_RECIPIENT, nativeQuery = true)
+    int subtractNotificationsOfPost(@Param("postId") Long postId);
+
+    // Same for a deleted user: notifications they sent and notifications on their posts
+    @Modifying
+    @Query(value = COUNTS_BY_RECIPIENT + "(n.sender_id = :userId " +
+            "OR n.post_id IN (SELECT id FROM posts WHERE user_id = :userId))" + BY_RECIPIENT, nativeQuery = true)
+    int subtractNotificationsOfUser(@Param("userId") Long userId);
+
+    // Notifications created in [from, to) are about to be dropped with their partition; the range
+    // predicate lets Postgres prune the scan to that partition
+    @Modifying
+    @Query(value = COUNTS_BY_RECIPIENT + "n.created_at >= :from AND n.created_at < :to" + BY_RECIPIENT,
+            nativeQuery = true)
+    int subtractNotificationsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // "Mark all as read" is a single-row write: move the watermark forward and zero the unread counter
+    @Modifying
+    @Query(value = "INSERT INTO user_notification_state (user_id, total_count, unread_count, read_up_to) " +
+            "VALUES (:userId, 0, 0, :readUpTo) ON CONFLICT (user_id) DO UPDATE SET unread_count = 0, " +
+            "read_up_to = GREATEST(user_notification_state.read_up_to, EXCLUDED.read_up_to)", nativeQuery = true)
+    int markAllRead(@Param("userId") Long userId, @Param("readUpTo") LocalDateTime readUpTo);
+
+    @Query("SELECT s.readUpTo FROM UserNotificationState s WHERE s.userId = :userId")
+    Optional<LocalDateTime> findReadUpTo(@Param("userId") Long userId);
+
+    // Recount every user and fix rows that are missing or differ (startup backfill and drift repair)
+    @Modifying
+    @Query(value = "INSERT INTO user_notification_state (user_id, total_count, unread_count) " +
+            "SELECT u.id, COUNT(n.id), COUNT(n.id) FILTER (WHERE " + UNREAD + ") " +
+            "FROM users u LEFT JOIN notifications n ON n.recipient_id = u.id " +
+            "LEFT JOIN user_notification_state us ON us.user_id = u.id GROUP BY u.id " +
+            "ON CONFLICT (user_id) DO UPDATE SET total_count = EXCLUDED.total_count, " +
+            "unread_count = EXCLUDED.unread_count " +
+            "WHERE user_notification_state.total_count <> EXCLUDED.total_count " +
+            "OR user_notification_state.unread_count <> EXCLUDED.unread_count", nativeQuery = true)
+    int reconcileCounts();
+}
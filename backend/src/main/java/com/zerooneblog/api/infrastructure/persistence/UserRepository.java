@@ -17,18 +17,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
         Optional<User> findByUsername(String username);
 
+        @Query("SELECT u.id FROM User u WHERE u.username = :username")
+        Optional<Long> findIdByUsername(@Param("username") String username);
+
         boolean existsByUsername(String email);
 
         Optional<User> findByEmail(String email);
 
         boolean existsByEmail(String email);
 
-        @Query("SELECT COUNT(f) FROM User u JOIN u.followers f WHERE u.id = :userId")
-        long countFollowers(@Param("userId") Long userId);
-
-        @Query("SELECT COUNT(f) FROM User u JOIN u.following f WHERE u.id = :userId")
-        long countFollowing(@Param("userId") Long userId);
-
         @Query(value = "SELECT COUNT(*) FROM user_followers WHERE follower_id = :followerId AND following_id = :followingId", nativeQuery = true)
         int countByFollowerIdAndFollowingId(@Param("followerId") Long followerId,
                         @Param("followingId") Long followingId);
@@ -56,7 +53,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
         Page<User> findByEnabled(@Param("enabled") boolean enabled, Pageable pageable);
 
         @Query("SELECT u FROM User u WHERE u.id NOT IN :excludedIds AND u.id != :currentUserId " +
-                        "ORDER BY SIZE(u.followers) DESC")
+                        "ORDER BY u.followerCount DESC")
         Page<User> findSuggestedUsers(@Param("currentUserId") Long currentUserId,
                         @Param("excludedIds") java.util.List<Long> excludedIds,
                         Pageable pageable);
@@ -68,10 +65,62 @@ public interface UserRepository extends JpaRepository<User, Long> {
         @Query("SELECT f FROM User u JOIN u.followers f WHERE u.id = :userId")
         List<User> findFollowersByUserId(@Param("userId") Long userId);
 
+        // Substring match on username or full name; the pattern must already have LIKE wildcards escaped
+        @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE :pattern ESCAPE '\\' " +
+                        "OR LOWER(u.name) LIKE :pattern ESCAPE '\\' ORDER BY u.followerCount DESC, u.id ASC")
+        Page<User> searchByUsernameOrName(@Param("pattern") String pattern, Pageable pageable);
+
+        // Searchable text for the in-memory search index, loaded in id order
+        @Query("SELECT u.id AS id, u.username AS username, u.name AS name FROM User u " +
+                        "WHERE u.id > :afterId ORDER BY u.id")
+        List<UserText> findUserTextsAfter(@Param("afterId") Long afterId, Limit limit);
+
+        @Query("SELECT u.id AS id, u.username AS username, u.name AS name FROM User u WHERE u.id IN :ids")
+        List<UserText> findUserTextsByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+        @Query("SELECT u.id FROM User u")
+        List<Long> findAllIds();
+
+        @Query("SELECT u.id FROM User u WHERE u.createdAt >= :since")
+        List<Long> findIdsCreatedSince(@Param("since") Instant since);
+
         @Modifying
         @Query(value = "DELETE FROM user_followers WHERE follower_id = :userId OR following_id = :userId", nativeQuery = true)
         void deleteUserRelationships(@Param("userId") Long userId);
 
         Page<User> findAllByRolesNotContaining(Role role, Pageable pageable);
 
+        // Atomically move the follower count of the followed user and the following count of the follower
+        @Modifying
+        @Query(value = "UPDATE users SET " +
+                        "follower_count = follower_count + CASE WHEN id = :followingId THEN :delta ELSE 0 END, " +
+                        "following_count = following_count + CASE WHEN id = :followerId THEN :delta ELSE 0 END " +
+                        "WHERE id IN (:followerId, :followingId)", nativeQuery = true)
+        int incrementFollowCounts(@Param("followerId") Long followerId, @Param("followingId") Long followingId,
+                        @Param("delta") long delta);
+
+        // Undo the follow relationships of a user who is about to be deleted
+        @Modifying
+        @Query(value = "UPDATE users SET follower_count = follower_count - 1 WHERE id IN " +
+                        "(SELECT following_id FROM user_followers WHERE follower_id = :userId)", nativeQuery = true)
+        int decrementFollowerCountsOfFollowing(@Param("userId") Long userId);
+
+        @Modifying
+        @Query(value = "UPDATE users SET following_count = following_count - 1 WHERE id IN " +
+                        "(SELECT follower_id FROM user_followers WHERE following_id = :userId)", nativeQuery = true)
+        int decrementFollowingCountsOfFollowers(@Param("userId") Long userId);
+
+        // Reconciliation: repair counters that drifted from user_followers
+        @Modifying
+        @Query(value = "UPDATE users u SET follower_count = c.cnt FROM (SELECT u2.id, COUNT(uf.follower_id) AS cnt " +
+                        "FROM users u2 LEFT JOIN user_followers uf ON uf.following_id = u2.id GROUP BY u2.id) c " +
+                        "WHERE u.id = c.id AND u.follower_count <> c.cnt", nativeQuery = true)
+        int reconcileFollowerCounts();
+
+        @Modifying
+        @Query(value = "UPDATE users u SET following_count = c.cnt FROM (SELECT u2.id, COUNT(uf.following_id) AS cnt " +
+                        "FROM users u2 LEFT JOIN user_followers uf ON uf.follower_id = u2.id GROUP BY u2.id) c " +
+                        "WHERE u.id = c.id AND u.following_count <> c.cnt", nativeQuery = true)
+        int reconcileFollowingCounts();
+
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.zerooneblog.api.infrastructure.persistence;
+
+// Projection with the searchable text of a user, used to (re)build the in-memory search index
+public interface UserText {
+    Long getId();
+
+    String getUsername();
+
+    String getName();
+}
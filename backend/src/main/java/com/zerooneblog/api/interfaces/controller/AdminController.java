@@ -2,7 +2,13 @@ package com.zerooneblog.api.interfaces.controller;
 
 import com.zerooneblog.api.interfaces.dto.*;
 import com.zerooneblog.api.service.AdminService;
+import com.zerooneblog.api.service.LikedPostsCache;
+import com.zerooneblog.api.service.NotificationFanOutService;
+import com.zerooneblog.api.service.PostCache;
 import com.zerooneblog.api.service.PostService;
+import com.zerooneblog.api.service.PresenceRegistry;
+import com.zerooneblog.api.service.ViewCounterService;
+import com.zerooneblog.api.service.WebSocketNotificationService;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,10 +22,25 @@ public class AdminController {
 
     private final AdminService adminService;
     private final PostService postService;
-
-    public AdminController(AdminService adminService, PostService postService) {
+    private final PostCache postCache;
+    private final ViewCounterService viewCounterService;
+    private final LikedPostsCache likedPostsCache;
+    private final NotificationFanOutService notificationFanOutService;
+    private final WebSocketNotificationService webSocketNotificationService;
+    private final PresenceRegistry presenceRegistry;
+
+    public AdminController(AdminService adminService, PostService postService, PostCache postCache,
+            ViewCounterService viewCounterService, LikedPostsCache likedPostsCache,
+            NotificationFanOutService notificationFanOutService,
+            WebSocketNotificationService webSocketNotificationService, PresenceRegistry presenceRegistry) {
         this.adminService = adminService;
         this.postService = postService;
+        this.postCache = postCache;
+        this.viewCounterService = viewCounterService;
+        this.likedPostsCache = likedPostsCache;
+        this.notificationFanOutService = notificationFanOutService;
+        this.webSocketNotificationService = webSocketNotificationService;
+        this.presenceRegistry = presenceRegistry;
     }
 
     // Get dashboard statistics
@@ -30,6 +51,58 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    // Get post cache hit/miss/eviction metrics
+    @GetMapping("/cache/posts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PostCacheStatsDto> getPostCacheStats() {
+        return ResponseEntity.ok(postCache.getStats());
+    }
+
+    // Get liked-post bitmap cache size, memory and hit/miss metrics
+    @GetMapping("/cache/liked-posts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LikedPostsCacheStatsDto> getLikedPostsCacheStats() {
+        return ResponseEntity.ok(likedPostsCache.getStats());
+    }
+
+    // Get follower notification fan-out queue depth, lag and failure metrics
+    @GetMapping("/notifications/fan-out")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<NotificationFanOutStatsDto> getNotificationFanOutStats() {
+        return ResponseEntity.ok(notificationFanOutService.getStats());
+    }
+
+    // Get WebSocket push coalescing metrics (updates requested vs frames sent)
+    @GetMapping("/notifications/websocket")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<WebSocketDispatchStatsDto> getWebSocketDispatchStats() {
+        return ResponseEntity.ok(webSocketNotificationService.getStats());
+    }
+
+    // Get connected users and WebSocket session metrics
+    @GetMapping("/presence")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PresenceStatsDto> getPresenceStats() {
+        return ResponseEntity.ok(presenceRegistry.getStats());
+    }
+
+    // Get view counter buffer and flush metrics
+    @GetMapping("/views")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ViewCounterStatsDto> getViewCounterStats() {
+        return ResponseEntity.ok(viewCounterService.getStats());
+    }
+
+    // Get posts ordered by total views, including hidden ones
+    @GetMapping("/posts/most-viewed")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PostsResponseDto> getMostViewedPosts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        return ResponseEntity.ok(postService.getMostViewedPostsForAdmin(page, size, authentication));
+    }
+
     // Get all posts for admin review
     @GetMapping("/posts")
     @PreAuthorize("hasRole('ADMIN')")
@@ -6,17 +6,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.zerooneblog.api.interfaces.dto.*;
 import com.zerooneblog.api.service.CommentService;
+import com.zerooneblog.api.service.ContentVersionService;
 
 // Endpoints for managing post comments
 @RestController
 @RequestMapping("/api")
 public class CommentController {
     private final CommentService commentService;
+    private final ContentVersionService contentVersionService;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, ContentVersionService contentVersionService) {
         this.commentService = commentService;
+        this.contentVersionService = contentVersionService;
     }
 
     // Create a new comment on a post
@@ -32,8 +36,13 @@ public class CommentController {
     @GetMapping("/posts/{postId}/comments")
     public ResponseEntity<CommentResponseDto> getCommentsByPostId(@PathVariable Long postId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(commentService.getCommentsByPostId(postId, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersionService.commentsETag(postId))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ContentVersionService.REVALIDATE)
+                .body(commentService.getCommentsByPostId(postId, page, size));
     }
 
     // Update a comment (only by author)
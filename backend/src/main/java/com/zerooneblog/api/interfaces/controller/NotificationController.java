@@ -3,6 +3,7 @@ package com.zerooneblog.api.interfaces.controller;
 import com.zerooneblog.api.domain.User;
 import com.zerooneblog.api.interfaces.dto.NotificationCountDto;
 import com.zerooneblog.api.interfaces.dto.NotificationDto;
+import com.zerooneblog.api.interfaces.dto.NotificationSyncDto;
 import com.zerooneblog.api.interfaces.exception.UnauthorizedOperationException;
 import com.zerooneblog.api.service.NotificationService;
 import com.zerooneblog.api.service.UserService;
@@ -58,6 +59,16 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    // Changes since a sync token (new, updated and deleted notifications); used on reconnect instead of
+    // refetching the paginated list. An empty token asks for a fresh position.
+    @GetMapping("/sync")
+    public ResponseEntity<NotificationSyncDto> syncNotifications(
+            @RequestParam(defaultValue = "") String token,
+            @RequestParam(defaultValue = "50") int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(notificationService.syncNotifications(userDetails.getUsername(), token, size));
+    }
+
     // Mark a single notification as read
     @PostMapping("/{id}/read")
     @PreAuthorize("isAuthenticated()") 
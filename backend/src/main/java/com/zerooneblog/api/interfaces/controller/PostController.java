@@ -1,7 +1,12 @@
 package com.zerooneblog.api.interfaces.controller;
 
 import com.zerooneblog.api.interfaces.dto.*;
+import com.zerooneblog.api.service.ContentVersionService;
+import com.zerooneblog.api.service.PostSearchService;
 import com.zerooneblog.api.service.PostService;
+import com.zerooneblog.api.service.ViewCounterService;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Size;
@@ -13,6 +18,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 // Endpoints for managing posts
@@ -22,9 +28,16 @@ import org.springframework.web.multipart.MultipartFile;
 public class PostController {
 
     private final PostService postService;
+    private final PostSearchService postSearchService;
+    private final ContentVersionService contentVersionService;
+    private final ViewCounterService viewCounterService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostSearchService postSearchService,
+            ContentVersionService contentVersionService, ViewCounterService viewCounterService) {
         this.postService = postService;
+        this.postSearchService = postSearchService;
+        this.contentVersionService = contentVersionService;
+        this.viewCounterService = viewCounterService;
     }
 
     // Create a new post with optional media files
@@ -43,33 +56,75 @@ public class PostController {
         return ResponseEntity.ok(createdPost);
     }
 
-    // Get all public posts with pagination
+    // Get all public posts with pagination (passing "cursor", even empty, switches to keyset mode)
     @GetMapping
     public ResponseEntity<PostsResponseDto> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            Authentication authentication) {
-        PostsResponseDto posts = postService.getAllPosts(page, size, authentication);
-
-        return ResponseEntity.ok(posts);
+            @RequestParam(required = false) String cursor,
+            Authentication authentication, WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersionService.listETag(authentication))) {
+            return null;
+        }
+        PostsResponseDto posts = cursor != null
+                ? postService.getAllPostsByCursor(cursor, size, authentication)
+                : postService.getAllPosts(page, size, authentication);
+
+        return ResponseEntity.ok().cacheControl(ContentVersionService.REVALIDATE).body(posts);
     }
 
     // Get personalized feed for authenticated user (from subscriptions)
     @GetMapping("/feed")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<PostsResponseDto> getFeedForCurrentUser(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication, WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersionService.listETag(authentication))) {
+            return null;
+        }
+        PostsResponseDto posts = cursor != null
+                ? postService.getFeedForCurrentUserByCursor(cursor, size, authentication)
+                : postService.getFeedForCurrentUser(page, size, authentication);
+        return ResponseEntity.ok().cacheControl(ContentVersionService.REVALIDATE).body(posts);
+    }
+
+    // Full-text search over post titles and content, best matches first (keyset paginated via "cursor")
+    @GetMapping("/search")
+    public ResponseEntity<PostSearchResponse> searchPosts(
+            @RequestParam("q") @Size(max = 200, message = "Search query must not exceed 200 characters") String query,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication, WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersionService.listETag(authentication))) {
+            return null;
+        }
+        PostSearchResponse results = postSearchService.search(query, cursor, size, authentication);
+        return ResponseEntity.ok().cacheControl(ContentVersionService.REVALIDATE).body(results);
+    }
+
+    // Get trending posts ranked by time-decayed likes, comments and views
+    @GetMapping("/trending")
+    public ResponseEntity<PostsResponseDto> getTrendingPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
-        PostsResponseDto posts = postService.getFeedForCurrentUser(page, size, authentication);
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok(postService.getTrendingPosts(page, size, authentication));
     }
 
     // Get a single post by ID
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id, Authentication authentication,
+            WebRequest webRequest, HttpServletRequest request) {
+        // Revalidated views count too; the counts shown may lag until the post itself changes
+        if (webRequest.checkNotModified(contentVersionService.postETag(id, authentication))) {
+            viewCounterService.recordView(id, authentication, request.getRemoteAddr());
+            return null;
+        }
         PostResponse post = postService.getPostById(id, authentication);
-        return ResponseEntity.ok(post);
+        viewCounterService.recordView(id, authentication, request.getRemoteAddr());
+        return ResponseEntity.ok().cacheControl(ContentVersionService.REVALIDATE).body(post);
     }
 
     // Update a post (only by author)
@@ -4,7 +4,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.zerooneblog.api.interfaces.dto.*;
+import com.zerooneblog.api.service.ContentVersionService;
 import com.zerooneblog.api.service.UserService;
 
 // Endpoints for managing user profiles and relationships
@@ -12,18 +14,34 @@ import com.zerooneblog.api.service.UserService;
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
+    private final ContentVersionService contentVersionService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ContentVersionService contentVersionService) {
         this.userService = userService;
+        this.contentVersionService = contentVersionService;
     }
 
     // Get user profile with their posts
     @GetMapping("/{username}")
     public ResponseEntity<UserProfileDto> getUserProfile(@PathVariable String username,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication, WebRequest webRequest) {
+        if (webRequest.checkNotModified(
+                contentVersionService.profileETag(userService.findIdByUsername(username), authentication))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ContentVersionService.REVALIDATE)
+                .body(userService.getUserProfile(username, page, size, authentication));
+    }
+
+    // Search users by username or full name
+    @GetMapping("/search")
+    public ResponseEntity<UserSuggestionResponse> searchUsers(@RequestParam("q") String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
-        return ResponseEntity.ok(userService.getUserProfile(username, page, size, authentication));
+        return ResponseEntity.ok(userService.searchUsers(query, page, size, authentication));
     }
 
     // Follow a user
@@ -0,0 +1,18 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikedPostsCacheStatsDto {
+    private int users;
+    private int maxUsers;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -18,5 +19,7 @@ public class NotificationDto {
     private String senderUsername;
     private Long postId;  
     private LocalDateTime createdAt;
+    private int actorCount;
+    private List<String> latestActors;
 }
 
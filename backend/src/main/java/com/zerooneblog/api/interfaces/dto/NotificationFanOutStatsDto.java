@@ -0,0 +1,21 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFanOutStatsDto {
+    private int queueDepth;
+    private int queueCapacity;
+    private int activeWorkers;
+    private long submitted;
+    private long completed;
+    private long failed;
+    private long retries;
+    private long notificationsWritten;
+    private long lastLagMillis;
+    private long maxLagMillis;
+}
@@ -0,0 +1,24 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Changes since a sync token. With fullResync the client refetches its list instead and keeps nextToken.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSyncDto {
+    // New or updated notifications (read state, aggregated actors), oldest change first
+    private List<NotificationDto> changed;
+    private List<Long> deletedIds;
+    // Everything created at or before this is read ("mark all as read"); null if never set
+    private LocalDateTime readUpTo;
+    private NotificationCountDto counts;
+    private String nextToken;
+    private boolean hasMore;
+    private boolean fullResync;
+}
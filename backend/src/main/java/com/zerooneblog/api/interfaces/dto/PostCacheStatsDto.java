@@ -0,0 +1,18 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCacheStatsDto {
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private double hitRate;
+}
@@ -13,10 +13,14 @@ public class PostResponse {
     private Long id;
     private String title;
     private String content;
+    private String excerpt;
     private Instant createdAt;
     private String authorUsername;
     private Long authorId;
     private long likeCount;
+    private long commentCount;
+    private long viewCount;
+    private long uniqueViewerCount;
     private long reportedCount;
     private boolean likedByCurrentUser;
     private List<PostMediaDto> mediaFiles;
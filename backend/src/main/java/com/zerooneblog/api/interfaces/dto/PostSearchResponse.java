@@ -0,0 +1,22 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PostSearchResponse {
+    private List<PostSearchResultDto> results;
+    private long pageSize;
+    private boolean last;
+    private String nextCursor;
+
+    public PostSearchResponse(List<PostSearchResultDto> results, int pageSize, String nextCursor) {
+        this.results = results;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.last = nextCursor == null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSearchResultDto {
+    private PostResponse post;
+    // HTML-escaped content fragment with matches wrapped in <mark></mark>
+    private String snippet;
+    private float rank;
+}
@@ -15,6 +15,7 @@ public class PostsResponseDto {
     private int totalPages;
     private long totalElements;
     private boolean last;
+    private String nextCursor;
     
 
     public PostsResponseDto(){}
@@ -27,4 +28,12 @@ public class PostsResponseDto {
         this.totalPages = totalPages;
         this.last = last;
     }
+
+    // Cursor-mode page: no page number or totals, only the cursor for the next page
+    public PostsResponseDto(List<PostResponse> content, int pageSize, String nextCursor) {
+        this.content = content;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.last = nextCursor == null;
+    }
 }
@@ -0,0 +1,15 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceStatsDto {
+    private int onlineUsers;
+    private int openSessions;
+    private long connects;
+    private long disconnects;
+}
@@ -0,0 +1,17 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewCounterStatsDto {
+    private int bufferedPosts;
+    private long bufferedViews;
+    private long flushedViews;
+    private long flushes;
+    private long failedFlushes;
+    private long lastFlushMillis;
+}
@@ -0,0 +1,18 @@
+package com.zerooneblog.api.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketDispatchStatsDto {
+    private int pendingUsers;
+    private long notificationUpdates;
+    private long notificationFrames;
+    private long countUpdates;
+    private long countFrames;
+    private long framesSaved;
+    private long skippedOffline;
+}
@@ -2,10 +2,14 @@ package com.zerooneblog.api.service;
 
 import com.zerooneblog.api.domain.*;
 import com.zerooneblog.api.infrastructure.persistence.*;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.UserChangedEvent;
 import com.zerooneblog.api.service.mapper.*;
 import com.zerooneblog.api.interfaces.dto.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,10 +27,16 @@ public class AdminService {
     private final UserAdminViewMapper userAdminViewMapper;
     private final ReportMapper reportMapper;
     private final PostMapper postMapper;
+    private final TimelineService timelineService;
+    private final UserNotificationStateRepository notificationStateRepository;
+    private final NotificationTombstoneRepository notificationTombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AdminService(UserRepository userRepository, PostRepository postRepository, ReportRepository reportRepository,
             UserReportRepository userReportRepository, UserAdminViewMapper userAdminViewMapper,
-            ReportMapper reportMapper, PostMapper postMapper) {
+            ReportMapper reportMapper, PostMapper postMapper, TimelineService timelineService,
+            UserNotificationStateRepository notificationStateRepository,
+            NotificationTombstoneRepository notificationTombstoneRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.reportRepository = reportRepository;
@@ -34,6 +44,10 @@ public class AdminService {
         this.userAdminViewMapper = userAdminViewMapper;
         this.reportMapper = reportMapper;
         this.postMapper = postMapper;
+        this.timelineService = timelineService;
+        this.notificationStateRepository = notificationStateRepository;
+        this.notificationTombstoneRepository = notificationTombstoneRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // Get dashboard statistics (total users, posts, reports, banned users, etc.)
@@ -127,11 +141,13 @@ public class AdminService {
     // Delete a post and all its associated reports
     @Transactional
     public void deletePost(Long postId) {
-        if (!postRepository.existsById(postId)) {
-            throw new ResourceNotFoundException("Post", "id", postId);
-        }
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
         reportRepository.deleteAllByPostId(postId);
+        notificationStateRepository.subtractNotificationsOfPost(postId);
+        notificationTombstoneRepository.recordNotificationsOfPost(postId, LocalDateTime.now());
         postRepository.deleteById(postId);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, true, post.getAuthor().getId(), null));
     }
 
     // Hide a post from public view
@@ -147,6 +163,8 @@ public class AdminService {
         post.setHidden(true);
         Post hiddenPost = postRepository.save(post);
         reportRepository.deleteAllByPostId(postId);
+        timelineService.removePost(postId);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, true, hiddenPost.getAuthor().getId(), null));
         return postMapper.toDto(hiddenPost, null);
     }
 
@@ -162,6 +180,8 @@ public class AdminService {
 
         post.setHidden(false);
         Post unhiddenPost = postRepository.save(post);
+        timelineService.fanOutPost(unhiddenPost);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, true, unhiddenPost.getAuthor().getId(), null));
         return postMapper.toDto(unhiddenPost, null);
     }
 
@@ -180,6 +200,7 @@ public class AdminService {
         }
         user.setEnabled(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, false));
     }
 
     // Unban a previously banned user
@@ -194,6 +215,7 @@ public class AdminService {
 
         user.setEnabled(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, false));
     }
 
     // Get all banned users with pagination
@@ -278,9 +300,18 @@ public class AdminService {
             throw new IllegalStateException("Admin users cannot be deleted.");
         }
 
+        // Keep the counters of everyone this user interacted with in sync before the rows go away
+        userRepository.decrementFollowerCountsOfFollowing(userId);
+        userRepository.decrementFollowingCountsOfFollowers(userId);
+        postRepository.decrementLikeCountsForUser(userId);
+        postRepository.decrementCommentCountsForUser(userId);
+        notificationStateRepository.subtractNotificationsOfUser(userId);
+        notificationTombstoneRepository.recordNotificationsOfUser(userId, LocalDateTime.now());
+
         userRepository.deleteUserRelationships(userId);
 
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, true));
     }
 
 }
\ No newline at end of file
@@ -7,7 +7,9 @@ import com.zerooneblog.api.infrastructure.security.JwtTokenProvider;
 import com.zerooneblog.api.interfaces.dto.requestDto.UserLoginRequest;
 import com.zerooneblog.api.interfaces.dto.requestDto.UserRegistrationRequest;
 import com.zerooneblog.api.interfaces.exception.DuplicateResourceException;
+import com.zerooneblog.api.service.event.UserChangedEvent;
 import java.util.Set;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,13 +24,16 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
-            AuthenticationManager authenticationManager, JwtTokenProvider jwtTokenProvider) {
+            AuthenticationManager authenticationManager, JwtTokenProvider jwtTokenProvider,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.eventPublisher = eventPublisher;
     }
 
     // Authenticate user and generate JWT token
@@ -61,6 +66,8 @@ public class AuthService {
         // Assign USER role by default
         user.setRoles(Set.of(Role.USER));
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), false));
+        return savedUser;
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.zerooneblog.api.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.zerooneblog.api.interfaces.dto.PostResponse;
+
+// Snapshot of a post kept in PostCache: access-control fields plus the viewer-neutral DTO parts. Only the
+// view counters move while it is cached: flushed views are overlaid when a response is built, so view traffic
+// never evicts the snapshot.
+public class CachedPost {
+    private final Long id;
+    private final Long authorId;
+    private final String authorUsername;
+    private final boolean hidden;
+    private final PostResponse rendered;
+    // Views flushed since the snapshot was loaded, and the latest distinct-viewer estimate
+    private final AtomicLong flushedViews = new AtomicLong();
+    private volatile long uniqueViewerCount;
+
+    // Keeps its own copy; the caller's DTO is left as it was
+    public CachedPost(PostResponse rendered) {
+        this.id = rendered.getId();
+        this.authorId = rendered.getAuthorId();
+        this.authorUsername = rendered.getAuthorUsername();
+        this.hidden = rendered.isHidden();
+        this.rendered = copy(rendered, false);
+        this.uniqueViewerCount = rendered.getUniqueViewerCount();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorUsername() {
+        return authorUsername;
+    }
+
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    // Build a fresh response for one viewer; the cached parts are never handed out directly
+    public PostResponse toResponse(boolean likedByCurrentUser) {
+        PostResponse dto = copy(rendered, likedByCurrentUser);
+        dto.setViewCount(rendered.getViewCount() + flushedViews.get());
+        dto.setUniqueViewerCount(uniqueViewerCount);
+        return dto;
+    }
+
+    // A view counter flush for this post committed
+    void addViews(long views, long uniqueViewers) {
+        flushedViews.addAndGet(views);
+        uniqueViewerCount = uniqueViewers;
+    }
+
+    // Media list is immutable, so copies can share it
+    private static PostResponse copy(PostResponse source, boolean likedByCurrentUser) {
+        PostResponse dto = new PostResponse();
+        dto.setId(source.getId());
+        dto.setTitle(source.getTitle());
+        dto.setContent(source.getContent());
+        dto.setExcerpt(source.getExcerpt());
+        dto.setCreatedAt(source.getCreatedAt());
+        dto.setAuthorUsername(source.getAuthorUsername());
+        dto.setAuthorId(source.getAuthorId());
+        dto.setLikeCount(source.getLikeCount());
+        dto.setCommentCount(source.getCommentCount());
+        dto.setViewCount(source.getViewCount());
+        dto.setUniqueViewerCount(source.getUniqueViewerCount());
+        dto.setReportedCount(source.getReportedCount());
+        dto.setLikedByCurrentUser(likedByCurrentUser);
+        dto.setMediaFiles(List.copyOf(source.getMediaFiles()));
+        dto.setHidden(source.isHidden());
+        return dto;
+    }
+}
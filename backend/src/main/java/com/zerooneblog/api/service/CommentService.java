@@ -4,8 +4,11 @@ import com.zerooneblog.api.interfaces.dto.CommentResponseDto;
 import com.zerooneblog.api.interfaces.dto.CommentDTO;
 import com.zerooneblog.api.interfaces.exception.ResourceNotFoundException;
 import com.zerooneblog.api.interfaces.exception.UnauthorizedActionException;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.PostEngagementEvent;
 import com.zerooneblog.api.service.mapper.CommentMapper;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.springframework.data.domain.*;
@@ -13,6 +16,9 @@ import org.springframework.security.core.Authentication;
 
 import com.zerooneblog.api.infrastructure.persistence.*;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,15 +34,18 @@ public class CommentService {
     private final CommentMapper commentMapper;
     private final NotificationService notificationService;
     private final PostService postService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserService userService,
-            CommentMapper commentMapper, NotificationService notificationService, PostService postService) {
+            CommentMapper commentMapper, NotificationService notificationService, PostService postService,
+            ApplicationEventPublisher eventPublisher) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.userService = userService;
         this.commentMapper = commentMapper;
         this.notificationService = notificationService;
         this.postService = postService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Create a new comment on a post
@@ -60,16 +69,20 @@ public class CommentService {
         newComment.setPost(post);
         newComment.setUser(user);
         Comment savedComment = commentRepository.save(newComment);
+        postRepository.incrementCommentCount(postId, 1);
+        eventPublisher.publishEvent(new PostChangedEvent(postId));
+        eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Kind.COMMENT,
+                toInstant(savedComment.getCreatedAt())));
         
         // Notify post author about new comment
         User postAuthor = post.getAuthor();
-        String message = user.getUsername() + " commented on your post: \"" + post.getTitle() + "\"";
-        notificationService.createNotification(
+        notificationService.notifyPostActivity(
                 postAuthor,
                 user,
                 Notification.NotificationType.NEW_COMMENT,
-                message,
-                post);
+                "commented on your post: \"" + post.getTitle() + "\"",
+                post,
+                toInstant(savedComment.getCreatedAt()));
         return commentMapper.toDto(savedComment);
     }
 
@@ -118,6 +131,7 @@ public class CommentService {
         // Update comment content
         comment.setContent(content);
         Comment updatedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new PostChangedEvent(postId));
         return commentMapper.toDto(updatedComment);
     }
 
@@ -139,7 +153,16 @@ public class CommentService {
         
         // Delete comment
         commentRepository.delete(comment);
+        postRepository.incrementCommentCount(postId, -1);
+        eventPublisher.publishEvent(new PostChangedEvent(postId));
+        eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Kind.UNCOMMENT,
+                toInstant(comment.getCreatedAt())));
         return "The comment has been deleted successfully!";
     }
 
+    // Comment timestamps are stored as local date-times in the server zone
+    private Instant toInstant(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant() : Instant.now();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.zerooneblog.api.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.zerooneblog.api.infrastructure.security.CustomUserDetails;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.UserChangedEvent;
+
+// Cheap in-memory version stamps used as strong ETags for conditional GETs. Every change takes the next value
+// of one clock and stores it in the scopes it affects: the public version (posts created, edited, hidden,
+// unhidden or deleted), the post's own version, its author's version and, for likes and follows, the acting
+// user's version. A tag is the newest stamp of the scopes its response depends on. Stamps are prefixed with
+// a boot epoch so tags handed out before a restart never match again.
+@Service
+public class ContentVersionService {
+    // Let clients keep responses but revalidate them with If-None-Match on every use
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Versions postVersions;
+    private final Versions authorVersions;
+    private final Versions viewerVersions;
+
+    private long clock;
+    private long publicVersion;
+
+    public ContentVersionService(@Value("${app.etag.max-tracked-posts:50000}") int maxTrackedPosts,
+            @Value("${app.etag.max-tracked-users:50000}") int maxTrackedUsers) {
+        this.postVersions = new Versions(maxTrackedPosts);
+        this.authorVersions = new Versions(maxTrackedUsers);
+        this.viewerVersions = new Versions(maxTrackedUsers);
+    }
+
+    // Bump after commit so a reader never gets a new tag paired with uncommitted data. Like and comment
+    // counts move only the post's own stamp, so listings may show them stale until the next content change.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        long version = ++clock;
+        postVersions.put(event.getPostId(), version);
+        if (event.isContentChanged()) {
+            publicVersion = version;
+            if (event.getAuthorId() != null) {
+                authorVersions.put(event.getAuthorId(), version);
+            }
+        }
+        if (event.getActorId() != null) {
+            viewerVersions.put(event.getActorId(), version);
+        }
+    }
+
+    // Follows, reports and bans show on the user's profile and in what they see as a viewer. A deleted user
+    // takes posts, comments, likes and follows with them, so every stamp moves.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        long version = ++clock;
+        authorVersions.put(event.getUserId(), version);
+        viewerVersions.put(event.getUserId(), version);
+        if (event.isDeleted()) {
+            publicVersion = version;
+            postVersions.raiseFloor(version);
+            authorVersions.raiseFloor(version);
+            viewerVersions.raiseFloor(version);
+        }
+    }
+
+    // Tag for public listings, the feed and search: the set of visible posts plus the viewer's own likes
+    // and follows (likedByCurrentUser, who the feed is pulled from)
+    public String listETag(Authentication authentication) {
+        Long viewerId = viewerId(authentication);
+        long version;
+        synchronized (this) {
+            version = Math.max(publicVersion, viewerVersion(viewerId));
+        }
+        return tag("l", version, viewerKey(viewerId));
+    }
+
+    // Tag for a user's profile: their posts, counts and ban state plus the viewer's own likes and follows
+    public String profileETag(Long userId, Authentication authentication) {
+        Long viewerId = viewerId(authentication);
+        long version;
+        synchronized (this) {
+            version = Math.max(authorVersions.get(userId), viewerVersion(viewerId));
+        }
+        return tag("u" + userId, version, viewerKey(viewerId));
+    }
+
+    // Tag for a single post as seen by the given viewer
+    public String postETag(Long postId, Authentication authentication) {
+        long version;
+        synchronized (this) {
+            version = postVersions.get(postId);
+        }
+        return tag("p" + postId, version, viewerKey(viewerId(authentication)));
+    }
+
+    // Tag for the comments of a post, which do not depend on the viewer
+    public String commentsETag(Long postId) {
+        long version;
+        synchronized (this) {
+            version = postVersions.get(postId);
+        }
+        return tag("c" + postId, version, "any");
+    }
+
+    private long viewerVersion(Long viewerId) {
+        return viewerId != null ? viewerVersions.get(viewerId) : 0L;
+    }
+
+    private String tag(String scope, long version, String viewer) {
+        return "\"" + scope + "-" + epoch + "-" + version + "-" + viewer + "\"";
+    }
+
+    private String viewerKey(Long viewerId) {
+        return viewerId != null ? viewerId.toString() : "anon";
+    }
+
+    private Long viewerId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getUserId();
+        }
+        return null;
+    }
+
+    // Most recently changed ids and their stamps; every id not tracked last changed at or before the floor
+    private static final class Versions {
+        private final Map<Long, Long> versions;
+        private long floor;
+
+        Versions(int maxTracked) {
+            this.versions = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                    if (size() > maxTracked) {
+                        floor = Math.max(floor, eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        void put(Long id, long version) {
+            versions.remove(id);
+            versions.put(id, version);
+        }
+
+        long get(Long id) {
+            Long version = versions.get(id);
+            return Math.max(version != null ? version : 0L, floor);
+        }
+
+        void raiseFloor(long version) {
+            floor = Math.max(floor, version);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.zerooneblog.api.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zerooneblog.api.service.event.PostChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+// Optional write-behind mode for posts.like_count (app.likes.write-behind=true). Committed likes and unlikes
+// are absorbed by per-post LongAdder counters instead of updating the hot posts row, and the deltas are
+// flushed as one JDBC batch on an interval. Every delta is appended to a journal segment before the request
+// is answered; segments are sealed at each flush, recorded as flushed in the same transaction as the counter
+// update, deleted once that flush commits and replayed on startup unless recorded, so a process crash neither
+// loses an acknowledged like nor counts a flushed one twice. Deltas written to the page cache but not yet forced can
+// still be lost by an OS crash; the reconciliation job repairs those from post_likes.
+@Service
+public class LikeCounterBuffer {
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterBuffer.class);
+
+    private static final String SEGMENT_PREFIX = "likes-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String INCREMENT_LIKES_SQL =
+            "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+    private static final String RECORD_FLUSH_SQL =
+            "INSERT INTO like_journal_flushes (segment, flushed_at) VALUES (?, ?) ON CONFLICT (segment) DO NOTHING";
+    private static final String FLUSHED_SEGMENTS_SQL = "SELECT segment FROM like_journal_flushes";
+    private static final String FORGET_FLUSH_SQL = "DELETE FROM like_journal_flushes WHERE segment = ?";
+
+    private final boolean enabled;
+    private final Path journalDir;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Recording takes the shared side; a flush takes the exclusive side to swap the counters and seal the segment
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    // One flush at a time: a flush records exactly the sealed segments whose deltas it writes, which are its
+    // own plus those of earlier failed flushes whose deltas went back into the buffer
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private DataOutputStream journal;
+    private Path journalSegment;
+    // Sealed segments whose deltas are not in the database yet
+    private final List<Path> sealedSegments = new ArrayList<>();
+    // Segments left by a previous run, replayed once on startup
+    private final List<Path> recoveredSegments = new ArrayList<>();
+    private final AtomicLong segmentSequence = new AtomicLong();
+    // Likes whose transaction is committing but not yet buffered, per post
+    private final ConcurrentHashMap<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    // Posts whose buffered count moved since a like recount started, null when no recount runs
+    private volatile Set<Long> recountTouched;
+
+    public LikeCounterBuffer(@Value("${app.likes.write-behind:false}") boolean enabled,
+            @Value("${app.likes.journal-path:./data/like-journal}") String journalPath,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher) {
+        this.enabled = enabled;
+        this.journalDir = Paths.get(journalPath);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Flushes commit on their own, also when called from the reconciliation transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        if (enabled) {
+            try {
+                Files.createDirectories(journalDir);
+                try (DirectoryStream<Path> segments = Files.newDirectoryStream(journalDir,
+                        SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                    segments.forEach(recoveredSegments::add);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open like journal directory " + journalDir, e);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Buffer a like count change once the surrounding transaction commits. Between its commit and the buffering
+    // the change counts as in flight, so a recount can tell it may already be in post_likes.
+    public void record(Long postId, int delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    inFlight.merge(postId, 1, Integer::sum);
+                    committing = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        apply(postId, delta);
+                    }
+                    if (committing) {
+                        inFlight.computeIfPresent(postId, (id, count) -> count == 1 ? null : count - 1);
+                    }
+                }
+            });
+        } else {
+            apply(postId, delta);
+        }
+    }
+
+    // Like count change not yet written to posts.like_count
+    public long pendingDelta(Long postId) {
+        if (!enabled) {
+            return 0;
+        }
+        LongAdder adder = pending.get(postId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    // Start tracking the posts whose count moves while like_count is recounted from post_likes
+    public void startRecount() {
+        recountTouched = ConcurrentHashMap.newKeySet();
+    }
+
+    // Stop tracking and return every post whose recount may disagree with the buffer: touched since the start,
+    // still buffered, or committed but not yet buffered. In-flight posts are read first; a like leaving that
+    // state has already been added to the touched set.
+    public Set<Long> finishRecount() {
+        Set<Long> unsettled = new HashSet<>(inFlight.keySet());
+        Set<Long> touched = recountTouched;
+        recountTouched = null;
+        if (touched != null) {
+            unsettled.addAll(touched);
+        }
+        unsettled.addAll(pending.keySet());
+        return unsettled;
+    }
+
+    // Apply what a previous run journaled but never flushed; segments whose flush committed before the
+    // process died are only deleted
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        flushLock.lock();
+        try {
+            replayRecoveredSegments();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void replayRecoveredSegments() {
+        if (recoveredSegments.isEmpty()) {
+            return;
+        }
+        Set<String> flushed = new HashSet<>(jdbcTemplate.queryForList(FLUSHED_SEGMENTS_SQL, String.class));
+        List<Path> unflushed = new ArrayList<>();
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Path segment : recoveredSegments) {
+            if (!flushed.contains(segmentName(segment))) {
+                unflushed.add(segment);
+                readSegment(segment, deltas);
+            }
+        }
+        writeDeltas(deltas, unflushed);
+        discardSegments(recoveredSegments);
+        log.info("Replayed like journal: {} of {} segments, {} posts", unflushed.size(), recoveredSegments.size(),
+                deltas.size());
+        recoveredSegments.clear();
+    }
+
+    // Write the buffered deltas in one batch; on failure they go back into the buffer and their sealed
+    // segments are kept until a later flush succeeds
+    @Scheduled(initialDelayString = "${app.likes.flush-interval-ms:1000}",
+            fixedDelayString = "${app.likes.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        Map<Long, LongAdder> drained;
+        List<Path> covered;
+        bufferLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            drained = pending;
+            pending = new ConcurrentHashMap<>();
+            covered = sealCurrentSegment();
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+
+        Map<Long, Long> deltas = new HashMap<>();
+        drained.forEach((postId, adder) -> deltas.put(postId, adder.sum()));
+        try {
+            writeDeltas(deltas, covered);
+        } catch (RuntimeException e) {
+            log.warn("Like counter flush failed for {} posts, keeping them for the next attempt", deltas.size(), e);
+            bufferLock.readLock().lock();
+            try {
+                deltas.forEach((postId, delta) -> pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta));
+            } finally {
+                bufferLock.readLock().unlock();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            sealedSegments.removeAll(covered);
+        }
+        discardSegments(covered);
+        // Renderings taken while the deltas were in flight may be off; drop them and move the ETags on
+        deltas.keySet().forEach(postId -> eventPublisher.publishEvent(new PostChangedEvent(postId)));
+    }
+
+    // Flush what is left so a clean shutdown leaves no journal behind
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        synchronized (this) {
+            closeJournal();
+        }
+    }
+
+    private void apply(Long postId, int delta) {
+        bufferLock.readLock().lock();
+        try {
+            append(postId, delta);
+            pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+            Set<Long> touched = recountTouched;
+            if (touched != null) {
+                touched.add(postId);
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    // Journal writes are serialized; each record reaches the OS before the like is acknowledged
+    private synchronized void append(Long postId, int delta) {
+        try {
+            if (journal == null) {
+                journalSegment = journalDir.resolve(SEGMENT_PREFIX + System.currentTimeMillis() + "-"
+                        + segmentSequence.incrementAndGet() + SEGMENT_SUFFIX);
+                journal = new DataOutputStream(new FileOutputStream(journalSegment.toFile(), true));
+            }
+            journal.writeLong(postId);
+            journal.writeInt(delta);
+            journal.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to like journal " + journalSegment, e);
+        }
+    }
+
+    // Close the current segment and return every sealed segment not yet covered by a successful flush
+    private synchronized List<Path> sealCurrentSegment() {
+        if (journal != null) {
+            closeJournal();
+            sealedSegments.add(journalSegment);
+            journalSegment = null;
+        }
+        return new ArrayList<>(sealedSegments);
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close like journal {}", journalSegment, e);
+        }
+        journal = null;
+    }
+
+    // The deltas and the segments they came from commit together
+    private void writeDeltas(Map<Long, Long> deltas, List<Path> segments) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[] { delta, postId });
+            }
+        });
+        Timestamp flushedAt = Timestamp.from(Instant.now());
+        List<Object[]> flushes = new ArrayList<>(segments.size());
+        segments.forEach(segment -> flushes.add(new Object[] { segmentName(segment), flushedAt }));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INCREMENT_LIKES_SQL, rows);
+            jdbcTemplate.batchUpdate(RECORD_FLUSH_SQL, flushes);
+        });
+    }
+
+    // A torn record at the end of a segment (crash mid-write) is ignored
+    private void readSegment(Path segment, Map<Long, Long> deltas) {
+        try (InputStream file = Files.newInputStream(segment);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                long postId = in.readLong();
+                int delta = in.readInt();
+                deltas.merge(postId, (long) delta, Long::sum);
+            }
+        } catch (EOFException e) {
+            // End of segment
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read like journal " + segment, e);
+        }
+    }
+
+    // Delete flushed segment files, then their flush records; a record whose file could not be deleted stays
+    // so the file is skipped on the next startup
+    private void discardSegments(List<Path> segments) {
+        List<Object[]> deleted = new ArrayList<>(segments.size());
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+                deleted.add(new Object[] { segmentName(segment) });
+            } catch (IOException e) {
+                log.warn("Failed to delete like journal segment {}", segment, e);
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(FORGET_FLUSH_SQL, deleted);
+        } catch (DataAccessException e) {
+            log.warn("Failed to forget {} flushed like journal segments", deleted.size(), e);
+        }
+    }
+
+    private static String segmentName(Path segment) {
+        return segment.getFileName().toString();
+    }
+}
@@ -0,0 +1,171 @@
+package com.zerooneblog.api.service;
+
+import java.util.Arrays;
+
+// Compressed set of post ids in the style of a Roaring bitmap: ids are split by their high bits into
+// chunks of 65536, and each chunk is stored as a sorted char array while sparse or as a 8 KB bitmap once it
+// holds more than 4096 ids. A user's likes usually cluster in recent id ranges, so most users need a few
+// small arrays. Not thread-safe on its own; LikedPostsCache guards access.
+public class LikedPostBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    // Sorted chunk keys (id >>> 16) with their containers at the same index
+    private long[] keys = new long[0];
+    private Object[] containers = new Object[0];
+    private int chunkCount;
+    // Live element count of each array container (char[] capacity may exceed it)
+    private int[] cardinalities = new int[0];
+
+    // Build from ids in any order
+    public static LikedPostBitmap of(Iterable<Long> ids) {
+        LikedPostBitmap bitmap = new LikedPostBitmap();
+        for (Long id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+
+    public boolean contains(long id) {
+        int index = Arrays.binarySearch(keys, 0, chunkCount, id >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) id;
+        Object container = containers[index];
+        if (container instanceof long[] words) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[index], low) >= 0;
+    }
+
+    public void add(long id) {
+        long key = id >>> 16;
+        char low = (char) id;
+        int index = Arrays.binarySearch(keys, 0, chunkCount, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key);
+        }
+        Object container = containers[index];
+        if (container instanceof long[] words) {
+            words[low >>> 6] |= 1L << low;
+            return;
+        }
+        char[] values = (char[]) container;
+        int cardinality = cardinalities[index];
+        int position = Arrays.binarySearch(values, 0, cardinality, low);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (cardinality == ARRAY_MAX) {
+            long[] words = toBitmap(values, cardinality);
+            words[low >>> 6] |= 1L << low;
+            containers[index] = words;
+            return;
+        }
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            containers[index] = values;
+        }
+        System.arraycopy(values, position, values, position + 1, cardinality - position);
+        values[position] = low;
+        cardinalities[index] = cardinality + 1;
+    }
+
+    public void remove(long id) {
+        int index = Arrays.binarySearch(keys, 0, chunkCount, id >>> 16);
+        if (index < 0) {
+            return;
+        }
+        char low = (char) id;
+        Object container = containers[index];
+        if (container instanceof long[] words) {
+            words[low >>> 6] &= ~(1L << low);
+            int cardinality = bitCount(words);
+            if (cardinality == 0) {
+                removeChunk(index);
+            } else if (cardinality <= ARRAY_MAX / 2) {
+                // Shrink back with some hysteresis so a chunk at the threshold does not flip on every change
+                containers[index] = toArray(words, cardinality);
+                cardinalities[index] = cardinality;
+            }
+            return;
+        }
+        char[] values = (char[]) container;
+        int cardinality = cardinalities[index];
+        int position = Arrays.binarySearch(values, 0, cardinality, low);
+        if (position < 0) {
+            return;
+        }
+        if (cardinality == 1) {
+            removeChunk(index);
+            return;
+        }
+        System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+        cardinalities[index] = cardinality - 1;
+    }
+
+    // Approximate heap footprint, used for cache statistics
+    public long sizeInBytes() {
+        long bytes = 16L * keys.length;
+        for (int i = 0; i < chunkCount; i++) {
+            bytes += containers[i] instanceof long[] ? 8L * BITMAP_WORDS : 2L * ((char[]) containers[i]).length;
+        }
+        return bytes;
+    }
+
+    private void insertChunk(int index, long key) {
+        if (chunkCount == keys.length) {
+            int capacity = Math.max(4, chunkCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(containers, index, containers, index + 1, chunkCount - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, chunkCount - index);
+        keys[index] = key;
+        containers[index] = new char[4];
+        cardinalities[index] = 0;
+        chunkCount++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, chunkCount - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, chunkCount - index - 1);
+        chunkCount--;
+        containers[chunkCount] = null;
+    }
+
+    private static long[] toBitmap(char[] values, int cardinality) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+        }
+        return words;
+    }
+
+    private static char[] toArray(long[] words, int cardinality) {
+        char[] values = new char[cardinality];
+        int position = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                values[position++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return values;
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
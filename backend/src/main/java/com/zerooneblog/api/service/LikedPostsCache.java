@@ -0,0 +1,180 @@
+package com.zerooneblog.api.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zerooneblog.api.infrastructure.persistence.PostLikeRepository;
+import com.zerooneblog.api.interfaces.dto.LikedPostsCacheStatsDto;
+import com.zerooneblog.api.service.event.UserChangedEvent;
+
+// In-process, size-bounded (LRU) cache of each user's liked post ids as a compressed bitmap, so the
+// likedByCurrentUser flag of a page is answered from memory. A user's bitmap is loaded on first use and
+// kept current by committed likes and unlikes.
+@Component
+public class LikedPostsCache {
+    private final PostLikeRepository postLikeRepository;
+    private final int maxUsers;
+    private final Map<Long, LikedPostBitmap> entries;
+    // Changes that commit while a user's bitmap is being loaded, replayed onto the loaded bitmap
+    private final Map<Long, List<LikeUpdate>> loading = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LikedPostsCache(PostLikeRepository postLikeRepository,
+            @Value("${app.liked-posts-cache.max-users:10000}") int maxUsers) {
+        this.postLikeRepository = postLikeRepository;
+        this.maxUsers = maxUsers;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LikedPostBitmap> eldest) {
+                if (size() > LikedPostsCache.this.maxUsers) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isLiked(Long userId, Long postId) {
+        LikedPostBitmap bitmap = bitmapFor(userId);
+        synchronized (this) {
+            return bitmap.contains(postId);
+        }
+    }
+
+    // The subset of postIds the user has liked
+    public Set<Long> likedAmong(Long userId, Collection<Long> postIds) {
+        LikedPostBitmap bitmap = bitmapFor(userId);
+        Set<Long> liked = new HashSet<>();
+        synchronized (this) {
+            for (Long postId : postIds) {
+                if (bitmap.contains(postId)) {
+                    liked.add(postId);
+                }
+            }
+        }
+        return liked;
+    }
+
+    // Apply a like or unlike to the cached bitmap once the surrounding transaction commits
+    public void record(Long userId, Long postId, boolean liked) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, new LikeUpdate(postId, liked));
+                }
+            });
+        } else {
+            apply(userId, new LikeUpdate(postId, liked));
+        }
+    }
+
+    // A deleted user's likes are gone with them
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        if (event.isDeleted()) {
+            entries.remove(event.getUserId());
+        }
+    }
+
+    public LikedPostsCacheStatsDto getStats() {
+        int size;
+        long bytes = 0;
+        synchronized (this) {
+            size = entries.size();
+            for (LikedPostBitmap bitmap : entries.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        double hitRate = lookups == 0 ? 0.0 : (double) hitCount / lookups;
+        return new LikedPostsCacheStatsDto(size, maxUsers, bytes, hitCount, missCount, evictions.get(), hitRate);
+    }
+
+    // Return the cached bitmap, loading it from the database on a miss
+    private LikedPostBitmap bitmapFor(Long userId) {
+        boolean owner;
+        synchronized (this) {
+            LikedPostBitmap cached = entries.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            owner = loading.putIfAbsent(userId, new ArrayList<>()) == null;
+        }
+        misses.incrementAndGet();
+
+        LikedPostBitmap loaded;
+        try {
+            loaded = LikedPostBitmap.of(postLikeRepository.findAllLikedPostIds(userId));
+        } catch (RuntimeException e) {
+            if (owner) {
+                synchronized (this) {
+                    loading.remove(userId);
+                }
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            if (!owner) {
+                // Another request is loading the same user; use this copy once without caching it
+                return loaded;
+            }
+            for (LikeUpdate update : loading.remove(userId)) {
+                update.applyTo(loaded);
+            }
+            entries.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private synchronized void apply(Long userId, LikeUpdate update) {
+        LikedPostBitmap cached = entries.get(userId);
+        if (cached != null) {
+            update.applyTo(cached);
+            return;
+        }
+        List<LikeUpdate> pending = loading.get(userId);
+        if (pending != null) {
+            pending.add(update);
+        }
+    }
+
+    private static final class LikeUpdate {
+        private final Long postId;
+        private final boolean liked;
+
+        LikeUpdate(Long postId, boolean liked) {
+            this.postId = postId;
+            this.liked = liked;
+        }
+
+        void applyTo(LikedPostBitmap bitmap) {
+            if (liked) {
+                bitmap.add(postId);
+            } else {
+                bitmap.remove(postId);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.zerooneblog.api.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zerooneblog.api.domain.Notification;
+import com.zerooneblog.api.infrastructure.persistence.InsertedNotification;
+import com.zerooneblog.api.infrastructure.persistence.NotificationRepository;
+import com.zerooneblog.api.interfaces.dto.NotificationCountDto;
+import com.zerooneblog.api.interfaces.dto.NotificationDto;
+import com.zerooneblog.api.interfaces.dto.NotificationFanOutStatsDto;
+import com.zerooneblog.api.service.event.PostPublishedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+// Pipeline notifying an author's followers about a new post, off the request thread and after the post
+// commits. Jobs run on a small pool of virtual threads behind a bounded queue; when the queue is full the
+// publishing thread runs the job itself, which slows posting down instead of dropping notifications.
+// Each job writes the followers in keyset-ordered chunks, one statement and transaction per chunk, retrying
+// a failed chunk with backoff before giving up on the rest.
+@Service
+public class NotificationFanOutService {
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanOutService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final WebSocketNotificationService webSocketService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong notificationsWritten = new AtomicLong();
+    // Time from commit of the post to the job starting
+    private volatile long lastLagMillis;
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public NotificationFanOutService(NotificationRepository notificationRepository,
+            WebSocketNotificationService webSocketService, PlatformTransactionManager transactionManager,
+            @Value("${app.notifications.fan-out.workers:4}") int workers,
+            @Value("${app.notifications.fan-out.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.notifications.fan-out.chunk-size:500}") int chunkSize,
+            @Value("${app.notifications.fan-out.max-attempts:3}") int maxAttempts,
+            @Value("${app.notifications.fan-out.retry-backoff-ms:200}") long retryBackoffMillis) {
+        this.notificationRepository = notificationRepository;
+        this.webSocketService = webSocketService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("notification-fan-out-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Queue the fan-out once the post is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostPublished(PostPublishedEvent event) {
+        long enqueuedAt = System.currentTimeMillis();
+        submitted.incrementAndGet();
+        executor.execute(() -> fanOut(event, enqueuedAt));
+    }
+
+    public NotificationFanOutStatsDto getStats() {
+        return new NotificationFanOutStatsDto(executor.getQueue().size(), queueCapacity, executor.getActiveCount(),
+                submitted.get(), completed.get(), failed.get(), retries.get(), notificationsWritten.get(),
+                lastLagMillis, maxLagMillis.get());
+    }
+
+    // Let queued jobs finish on shutdown, within reason
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Notification fan-out stopped with {} jobs still queued", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    private void fanOut(PostPublishedEvent event, long enqueuedAt) {
+        long lag = System.currentTimeMillis() - enqueuedAt;
+        lastLagMillis = lag;
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+
+        String message = event.getAuthorUsername() + " posted: \"" + event.getTitle() + "\"";
+        long afterFollowerId = 0;
+        while (true) {
+            WrittenChunk written = writeChunk(event, message, afterFollowerId);
+            if (written == null) {
+                failed.incrementAndGet();
+                log.error("Giving up notifying followers of user {} about post {} after follower {}",
+                        event.getAuthorId(), event.getPostId(), afterFollowerId);
+                return;
+            }
+            List<InsertedNotification> chunk = written.rows;
+            if (chunk.isEmpty()) {
+                break;
+            }
+            notificationsWritten.addAndGet(chunk.size());
+            push(event, message, written.insertedAt, chunk);
+            afterFollowerId = chunk.get(chunk.size() - 1).getRecipientId();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        completed.incrementAndGet();
+    }
+
+    // One chunk in its own transaction; null once every attempt failed
+    private WrittenChunk writeChunk(PostPublishedEvent event, String message, long afterFollowerId) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                // Stamped per attempt: a chunk written later (or retried) must not land behind sync tokens or
+                // read watermarks already handed out while the fan-out was queued or the earlier chunks written
+                LocalDateTime insertedAt = LocalDateTime.now();
+                List<InsertedNotification> rows = transactionTemplate.execute(status ->
+                        notificationRepository.insertFollowerNotifications(event.getAuthorId(),
+                                event.getAuthorUsername(), event.getPostId(), message, insertedAt, afterFollowerId,
+                                chunkSize));
+                return new WrittenChunk(rows, insertedAt);
+            } catch (DataAccessException | TransactionException e) {
+                if (attempt == maxAttempts) {
+                    log.warn("Notification fan-out chunk failed after {} attempts", attempt, e);
+                    return null;
+                }
+                retries.incrementAndGet();
+                try {
+                    Thread.sleep(retryBackoffMillis * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Push the new notifications and the counts returned by the insert itself to recipients who are connected
+    private void push(PostPublishedEvent event, String message, LocalDateTime createdAt,
+            List<InsertedNotification> chunk) {
+        for (InsertedNotification inserted : chunk) {
+            if (!webSocketService.isOnline(inserted.getRecipientUsername())) {
+                continue;
+            }
+            NotificationDto dto = new NotificationDto(inserted.getId(), message, false,
+                    Notification.NotificationType.NEW_POST, event.getAuthorUsername(), event.getPostId(), createdAt,
+                    1, List.of(event.getAuthorUsername()));
+            webSocketService.sendNotificationToUser(inserted.getRecipientUsername(), dto);
+            webSocketService.sendNotificationCountsToUser(inserted.getRecipientUsername(),
+                    new NotificationCountDto(inserted.getTotalCount(), inserted.getUnreadCount(),
+                            inserted.getTotalCount() - inserted.getUnreadCount()));
+        }
+    }
+
+    private static final class WrittenChunk {
+        private final List<InsertedNotification> rows;
+        private final LocalDateTime insertedAt;
+
+        private WrittenChunk(List<InsertedNotification> rows, LocalDateTime insertedAt) {
+            this.rows = rows;
+            this.insertedAt = insertedAt;
+        }
+    }
+}
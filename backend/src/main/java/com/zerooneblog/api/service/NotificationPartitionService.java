@@ -0,0 +1,179 @@
+package com.zerooneblog.api.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zerooneblog.api.infrastructure.persistence.UserNotificationStateRepository;
+
+// Keeps the notifications table range-partitioned by month on created_at. Partitions are created ahead of
+// time (rows that still landed in the default partition are moved into theirs), and retention drops whole
+// partitions instead of deleting rows, optionally copying their read notifications to notifications_archive.
+@Service
+public class NotificationPartitionService {
+    private static final Logger log = LoggerFactory.getLogger(NotificationPartitionService.class);
+
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final UserNotificationStateRepository notificationStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitionsAhead;
+    private final int retentionMonths;
+    private final boolean archiveRead;
+
+    // Maintenance waits for the startup conversion so it never runs against the unpartitioned table
+    private volatile boolean initialized;
+
+    public NotificationPartitionService(UserNotificationStateRepository notificationStateRepository,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${app.notifications.partitions-ahead:2}") int partitionsAhead,
+            @Value("${app.notifications.retention-months:12}") int retentionMonths,
+            @Value("${app.notifications.archive-read:false}") boolean archiveRead) {
+        this.notificationStateRepository = notificationStateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionsAhead = partitionsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveRead = archiveRead;
+    }
+
+    // Called once on startup (SchemaInitializer): convert a plain table, then cover every month that has rows
+    public void initialize() {
+        if (!isPartitioned()) {
+            transactionTemplate.executeWithoutResult(status -> convertToPartitioned());
+            log.info("Converted notifications to a monthly partitioned table");
+        }
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM notifications_default", LocalDateTime.class);
+        YearMonth from = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+        createPartitions(from, YearMonth.now().plusMonths(partitionsAhead));
+        initialized = true;
+    }
+
+    // Create upcoming partitions and drop the ones past retention
+    @Scheduled(fixedDelayString = "${app.notifications.partition-maintenance-interval-ms:3600000}")
+    public void maintain() {
+        if (!initialized) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        createPartitions(current, current.plusMonths(partitionsAhead));
+        if (retentionMonths > 0) {
+            dropPartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('notifications')", String.class);
+        return "p".equals(kind);
+    }
+
+    // Rebuild the table as a partitioned one: the primary key has to include the partition column, and
+    // indexes and foreign keys are recreated on the parent so every partition gets them. The old table is
+    // locked first so no notification written while the rows are copied (e.g. by another instance) is
+    // dropped with it; writers wait and then fail on the dropped table instead of losing rows silently.
+    private void convertToPartitioned() {
+        jdbcTemplate.execute("LOCK TABLE notifications IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE notifications_partitioned " +
+                "(LIKE notifications INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("ALTER TABLE notifications_partitioned ADD PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("CREATE TABLE notifications_default PARTITION OF notifications_partitioned DEFAULT");
+        jdbcTemplate.execute("INSERT INTO notifications_partitioned SELECT * FROM notifications");
+        jdbcTemplate.execute("DROP TABLE notifications");
+        jdbcTemplate.execute("ALTER TABLE notifications_partitioned RENAME TO notifications");
+        jdbcTemplate.execute("ALTER TABLE notifications " +
+                "ADD FOREIGN KEY (recipient_id) REFERENCES users (id) ON DELETE CASCADE, " +
+                "ADD FOREIGN KEY (sender_id) REFERENCES users (id) ON DELETE CASCADE, " +
+                "ADD FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE");
+        jdbcTemplate.execute("CREATE INDEX idx_notifications_aggregate " +
+                "ON notifications (recipient_id, post_id, type, is_read)");
+        jdbcTemplate.execute("CREATE INDEX idx_notifications_recipient_created " +
+                "ON notifications (recipient_id, created_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_notifications_recipient_updated " +
+                "ON notifications (recipient_id, updated_at, id)");
+    }
+
+    private void createPartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String partition = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+            Boolean exists = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(CAST(? AS text)) IS NOT NULL", Boolean.class, partition);
+            if (!Boolean.TRUE.equals(exists)) {
+                createPartition(partition, month);
+            }
+        }
+    }
+
+    // Built detached and then attached, so rows of that month sitting in the default partition move with it
+    private void createPartition(String partition, YearMonth month) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + partition +
+                    " (LIKE notifications INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM notifications_default " +
+                    "WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO " + partition +
+                    " SELECT * FROM moved", Timestamp.valueOf(start), Timestamp.valueOf(end));
+            jdbcTemplate.execute("ALTER TABLE notifications ATTACH PARTITION " + partition +
+                    " FOR VALUES FROM ('" + start.toLocalDate() + "') TO ('" + end.toLocalDate() + "')");
+            if (moved > 0) {
+                log.info("Created notification partition {} with {} rows from the default partition", partition, moved);
+            }
+        });
+    }
+
+    // Counters are adjusted and read rows archived in the same transaction that drops the partition
+    private void dropPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'notifications'::regclass", String.class);
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            LocalDateTime start = month.atDay(1).atStartOfDay();
+            LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+            transactionTemplate.executeWithoutResult(status -> {
+                // Nothing may mark these rows read between counting and dropping them
+                jdbcTemplate.execute("LOCK TABLE " + partition + " IN ACCESS EXCLUSIVE MODE");
+                notificationStateRepository.subtractNotificationsCreatedBetween(start, end);
+                if (archiveRead) {
+                    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notifications_archive (LIKE notifications)");
+                    // Read by flag or by the recipient's watermark; archived rows are all flagged read
+                    jdbcTemplate.execute("INSERT INTO notifications_archive SELECT n.* FROM " + partition +
+                            " n LEFT JOIN user_notification_state us ON us.user_id = n.recipient_id " +
+                            "WHERE NOT (" + UserNotificationStateRepository.UNREAD + ")");
+                    jdbcTemplate.execute("UPDATE notifications_archive SET is_read = true WHERE is_read = false");
+                }
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            });
+            log.info("Dropped notification partition {} (past {} months retention)", partition, retentionMonths);
+        }
+    }
+
+    private static YearMonth partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
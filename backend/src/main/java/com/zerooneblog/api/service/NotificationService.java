@@ -1,38 +1,118 @@
 package com.zerooneblog.api.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.data.domain.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.zerooneblog.api.domain.Notification;
 import com.zerooneblog.api.domain.Post;
 import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.CommentRepository;
+import com.zerooneblog.api.infrastructure.persistence.NotificationCounts;
 import com.zerooneblog.api.infrastructure.persistence.NotificationRepository;
+import com.zerooneblog.api.infrastructure.persistence.NotificationTombstoneRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostLikeRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.infrastructure.persistence.UserNotificationStateRepository;
 import com.zerooneblog.api.infrastructure.persistence.UserRepository;
 import com.zerooneblog.api.interfaces.dto.NotificationCountDto;
 import com.zerooneblog.api.interfaces.dto.NotificationDto;
+import com.zerooneblog.api.interfaces.dto.NotificationSyncDto;
 import com.zerooneblog.api.interfaces.exception.NotificationNotFoundException;
 import com.zerooneblog.api.interfaces.exception.UnauthorizedActionException;
 import com.zerooneblog.api.interfaces.exception.UnauthorizedOperationException;
 
+import jakarta.annotation.PreDestroy;
+
 // Service for managing user notifications with WebSocket support
 @Service
 public class NotificationService {
+    private static final int MAX_LATEST_ACTORS = 3;
+    // Watermark of users who never marked all as read: earlier than any notification
+    private static final LocalDateTime NO_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_SYNC_PAGE = 200;
+    // More deletions than this since the sync position and the client is better off reloading its list
+    private static final int MAX_SYNC_DELETED = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
     private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final CommentRepository commentRepository;
     private final NotificationRepository notificationRepository;
+    private final UserNotificationStateRepository notificationStateRepository;
+    private final NotificationTombstoneRepository tombstoneRepository;
     private final WebSocketNotificationService webSocketService;
+    private final TransactionTemplate activityTransaction;
+    private final Duration aggregationWindow;
+    private final long pushThrottleMillis;
+    private final Duration tombstoneRetention;
+    private final Duration syncCommitLag;
+
+    // Last push per aggregated notification, and aggregates updated since then whose push is still due
+    private final Map<Long, Long> lastPushedAt = new ConcurrentHashMap<>();
+    private final Set<Long> throttledPushes = ConcurrentHashMap.newKeySet();
+    // Committed likes and comments waiting for flushPostActivity
+    private final Map<ActivityKey, PendingActivity> pendingActivity = new ConcurrentHashMap<>();
 
     public NotificationService(
             NotificationRepository notificationRepository,
             UserRepository userRepository,
-            WebSocketNotificationService webSocketService) {
+            PostRepository postRepository,
+            PostLikeRepository postLikeRepository,
+            CommentRepository commentRepository,
+            UserNotificationStateRepository notificationStateRepository,
+            NotificationTombstoneRepository tombstoneRepository,
+            WebSocketNotificationService webSocketService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.notifications.aggregation-window-minutes:60}") long aggregationWindowMinutes,
+            @Value("${app.notifications.push-throttle-ms:5000}") long pushThrottleMillis,
+            @Value("${app.notifications.sync.tombstone-retention-hours:168}") long tombstoneRetentionHours,
+            @Value("${app.notifications.sync.commit-lag-ms:5000}") long syncCommitLagMillis) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.commentRepository = commentRepository;
+        this.notificationStateRepository = notificationStateRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.webSocketService = webSocketService;
+        this.activityTransaction = new TransactionTemplate(transactionManager);
+        this.activityTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.aggregationWindow = Duration.ofMinutes(aggregationWindowMinutes);
+        this.pushThrottleMillis = pushThrottleMillis;
+        this.tombstoneRetention = Duration.ofHours(tombstoneRetentionHours);
+        this.syncCommitLag = Duration.ofMillis(syncCommitLagMillis);
     }
 
     // Create a single notification for a user
@@ -50,9 +130,17 @@ public class NotificationService {
         notification.setType(type);
         notification.setMessage(message);
         notification.setPost(post);
+        notification.setLatestActors(sender.getUsername());
         notification.setRead(false);
 
         notification = notificationRepository.save(notification);
+        notificationStateRepository.addCounts(recipient.getId(), 1, 1);
+        lastPushedAt.put(notification.getId(), System.currentTimeMillis());
+
+        // Offline recipients get neither the push nor the counts lookup; they load both on connect
+        if (!webSocketService.isOnline(recipient.getUsername())) {
+            return;
+        }
 
         // Send real-time notification via WebSocket
         NotificationDto notificationDto = mapToDto(notification);
@@ -63,6 +151,214 @@ public class NotificationService {
         webSocketService.sendNotificationCountsToUser(recipient.getUsername(), counts);
     }
 
+    // Notify a post's author about a like or comment. The activity is handed over once the liking or
+    // commenting transaction commits and folded in memory per (recipient, post, type); flushPostActivity
+    // then writes each group in its own short transaction. The like path never waits on a notification row,
+    // and with a single writer concurrent first likers cannot open duplicate aggregates. Activity still
+    // buffered when the process dies is lost. occurredAt is the like's or comment's own timestamp.
+    public void notifyPostActivity(User recipient, User sender, Notification.NotificationType type, String action,
+            Post post, Instant occurredAt) {
+        if (recipient.getId().equals(sender.getId())) {
+            return;
+        }
+        ActivityKey key = new ActivityKey(recipient.getId(), post.getId(), type);
+        Long senderId = sender.getId();
+        String senderUsername = sender.getUsername();
+        LocalDateTime at = LocalDateTime.ofInstant(occurredAt, ZoneId.systemDefault());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bufferActivity(key, senderId, senderUsername, action, at);
+                }
+            });
+        } else {
+            bufferActivity(key, senderId, senderUsername, action, at);
+        }
+    }
+
+    // Write the buffered activity. Within the aggregation window a group folds into the newest unread
+    // notification of its type ("alice and 41 others liked your post: ..."), which is updated in place and
+    // re-pushed at most once per throttle interval; otherwise it opens a new one.
+    @Scheduled(initialDelayString = "${app.notifications.aggregation-flush-ms:1000}",
+            fixedDelayString = "${app.notifications.aggregation-flush-ms:1000}")
+    public void flushPostActivity() {
+        for (ActivityKey key : new ArrayList<>(pendingActivity.keySet())) {
+            PendingActivity activity = pendingActivity.remove(key);
+            if (activity == null) {
+                continue;
+            }
+            synchronized (activity) {
+                activity.closed = true;
+            }
+            try {
+                activityTransaction.executeWithoutResult(status -> writeActivity(key, activity));
+            } catch (TransientDataAccessException | RecoverableDataAccessException
+                    | CannotCreateTransactionException e) {
+                // The database is briefly unavailable or the write lost a race; try again on the next flush
+                log.warn("Keeping {} notification activity on post {} for user {} after a transient failure",
+                        key.type, key.postId, key.recipientId, e);
+                requeueActivity(key, activity);
+            } catch (DataAccessException | TransactionException e) {
+                // Typically the post or one of the users went away in the meantime
+                log.warn("Dropping {} notification activity on post {} for user {}", key.type, key.postId,
+                        key.recipientId, e);
+            }
+        }
+    }
+
+    // Write what is still buffered on a clean shutdown
+    @PreDestroy
+    public void shutdown() {
+        flushPostActivity();
+    }
+
+    private void bufferActivity(ActivityKey key, Long senderId, String senderUsername, String action,
+            LocalDateTime occurredAt) {
+        while (true) {
+            PendingActivity activity = pendingActivity.computeIfAbsent(key, k -> new PendingActivity());
+            synchronized (activity) {
+                // A group already taken by the flush gets a successor instead
+                if (!activity.closed) {
+                    activity.actors.remove(senderUsername);
+                    activity.actors.add(senderUsername);
+                    activity.latestSenderId = senderId;
+                    activity.action = action;
+                    activity.includeSince(occurredAt);
+                    return;
+                }
+            }
+            pendingActivity.remove(key, activity);
+        }
+    }
+
+    // Put a group whose write failed back in front of whatever was buffered for the same key since
+    private void requeueActivity(ActivityKey key, PendingActivity failed) {
+        while (true) {
+            PendingActivity activity = pendingActivity.computeIfAbsent(key, k -> new PendingActivity());
+            synchronized (activity) {
+                if (!activity.closed) {
+                    LinkedHashSet<String> actors = new LinkedHashSet<>(failed.actors);
+                    actors.removeAll(activity.actors);
+                    actors.addAll(activity.actors);
+                    activity.actors.clear();
+                    activity.actors.addAll(actors);
+                    if (activity.latestSenderId == null) {
+                        activity.latestSenderId = failed.latestSenderId;
+                        activity.action = failed.action;
+                    }
+                    activity.includeSince(failed.since);
+                    return;
+                }
+            }
+            pendingActivity.remove(key, activity);
+        }
+    }
+
+    private void writeActivity(ActivityKey key, PendingActivity activity) {
+        List<String> batch = new ArrayList<>(activity.actors);
+        User sender = userRepository.getReferenceById(activity.latestSenderId);
+        LocalDateTime since = LocalDateTime.now().minus(aggregationWindow);
+        List<Notification> open = notificationRepository.findOpenAggregate(key.recipientId, key.postId, key.type,
+                since, Limit.of(1));
+
+        if (open.isEmpty()) {
+            User recipient = userRepository.findById(key.recipientId).orElse(null);
+            if (recipient == null) {
+                return;
+            }
+            List<String> actors = new ArrayList<>(batch.reversed());
+            if (actors.size() > MAX_LATEST_ACTORS) {
+                actors = actors.subList(0, MAX_LATEST_ACTORS);
+            }
+            Notification notification = new Notification();
+            notification.setRecipient(recipient);
+            notification.setSender(sender);
+            notification.setType(key.type);
+            notification.setPost(postRepository.getReferenceById(key.postId));
+            notification.setActorCount(batch.size());
+            notification.setActorsSince(activity.since);
+            notification.setLatestActors(String.join(",", actors));
+            notification.setMessage(describeActors(actors, batch.size()) + " " + activity.action);
+            notification.setRead(false);
+
+            notification = notificationRepository.save(notification);
+            notificationStateRepository.addCounts(recipient.getId(), 1, 1);
+            lastPushedAt.put(notification.getId(), System.currentTimeMillis());
+
+            // Offline recipients get neither the push nor the counts lookup; they load both on connect
+            if (!webSocketService.isOnline(recipient.getUsername())) {
+                return;
+            }
+            webSocketService.sendNotificationToUser(recipient.getUsername(), mapToDto(notification));
+            webSocketService.sendNotificationCountsToUser(recipient.getUsername(),
+                    getNotificationCounts(recipient.getUsername()));
+            return;
+        }
+
+        Notification aggregate = open.get(0);
+        List<String> actors = new ArrayList<>(latestActors(aggregate));
+        for (String actor : batch) {
+            actors.remove(actor);
+            actors.add(0, actor);
+            if (actors.size() > MAX_LATEST_ACTORS) {
+                actors = new ArrayList<>(actors.subList(0, MAX_LATEST_ACTORS));
+            }
+        }
+        // Aggregates written before actors_since existed start counting from their creation
+        if (aggregate.getActorsSince() == null) {
+            aggregate.setActorsSince(aggregate.getCreatedAt());
+        }
+        int actorCount = (int) Math.max(1, countActorsSince(key, aggregate.getActorsSince()));
+        aggregate.setActorCount(actorCount);
+        aggregate.setLatestActors(String.join(",", actors));
+        aggregate.setSender(sender);
+        aggregate.setMessage(describeActors(actors, actorCount) + " " + activity.action);
+
+        // Counts are unchanged, so only the updated notification itself is pushed
+        String recipientUsername = aggregate.getRecipient().getUsername();
+        if (!webSocketService.isOnline(recipientUsername)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long lastPush = lastPushedAt.get(aggregate.getId());
+        if (lastPush == null || now - lastPush >= pushThrottleMillis) {
+            lastPushedAt.put(aggregate.getId(), now);
+            throttledPushes.remove(aggregate.getId());
+            webSocketService.sendNotificationToUser(recipientUsername, mapToDto(aggregate));
+        } else {
+            throttledPushes.add(aggregate.getId());
+        }
+    }
+
+    // Distinct users who liked or commented since the aggregate's first activity; likes taken back drop out
+    private long countActorsSince(ActivityKey key, LocalDateTime since) {
+        if (key.type == Notification.NotificationType.NEW_LIKE) {
+            return postLikeRepository.countLikersSince(key.postId, key.recipientId,
+                    since.atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return commentRepository.countCommentersSince(key.postId, key.recipientId, since);
+    }
+
+    // Push the latest state of aggregates whose updates were held back by the throttle
+    @Scheduled(initialDelayString = "${app.notifications.push-throttle-ms:5000}",
+            fixedDelayString = "${app.notifications.push-throttle-ms:5000}")
+    @Transactional(readOnly = true)
+    public void pushThrottledUpdates() {
+        long now = System.currentTimeMillis();
+        lastPushedAt.values().removeIf(pushedAt -> now - pushedAt >= pushThrottleMillis);
+        if (throttledPushes.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(throttledPushes);
+        throttledPushes.removeAll(ids);
+        for (Notification notification : notificationRepository.findAllById(ids)) {
+            lastPushedAt.put(notification.getId(), now);
+            webSocketService.sendNotificationToUser(notification.getRecipient().getUsername(),
+                    mapToDto(notification, readUpTo(notification.getRecipient().getId())));
+        }
+    }
+
     // Get notifications by read status with pagination
     @Transactional(readOnly = true)
     public Page<NotificationDto> getNotificationsByReadStatus(String username, boolean isRead, int page, int size) {
@@ -70,12 +366,12 @@ public class NotificationService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Notification> notifications = notificationRepository.findByRecipientAndIsReadOrderByCreatedAtDesc(
-                user,
-                isRead,
-                pageable);
+        LocalDateTime readUpTo = readUpTo(user.getId());
+        Page<Notification> notifications = isRead
+                ? notificationRepository.findReadByRecipient(user, readUpTo, pageable)
+                : notificationRepository.findUnreadByRecipient(user, readUpTo, pageable);
 
-        return notifications.map(this::mapToDto);
+        return notifications.map(notification -> mapToDto(notification, readUpTo));
     }
 
     // Get all notifications for user with pagination
@@ -86,20 +382,112 @@ public class NotificationService {
 
         Pageable pageable = PageRequest.of(page, size);
         Page<Notification> notifications = notificationRepository.findByRecipientOrderByCreatedAtDesc(user, pageable);
+        LocalDateTime readUpTo = readUpTo(user.getId());
 
-        return notifications.map(this::mapToDto);
+        return notifications.map(notification -> mapToDto(notification, readUpTo));
     }
 
-    // Convert Notification entity to DTO
+    // Delta sync for reconnecting clients: notifications created or changed after the token (keyset on
+    // updatedAt, id), ids deleted since then, and the read watermark. Without a usable token (none, older
+    // than the kept tombstones, or too many deletions) the client is told to reload its list; the returned
+    // token then marks where to sync from afterwards.
+    @Transactional(readOnly = true)
+    public NotificationSyncDto syncNotifications(String username, String token, int size) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        NotificationSyncToken since = NotificationSyncToken.decode(token);
+        LocalDateTime now = LocalDateTime.now();
+        // Rows written by transactions still in flight can carry an updated_at slightly in the past, so the
+        // token never moves past this point and the last few seconds are read again next time
+        NotificationSyncToken settled = new NotificationSyncToken(now.minus(syncCommitLag), 0L);
+
+        LocalDateTime watermark = notificationStateRepository.findReadUpTo(user.getId()).orElse(null);
+        LocalDateTime readUpTo = watermark != null ? watermark : NO_WATERMARK;
+        NotificationCountDto counts = getNotificationCounts(username);
+
+        if (since == null || since.getUpdatedAt().isBefore(now.minus(tombstoneRetention))) {
+            return new NotificationSyncDto(List.of(), List.of(), watermark, counts, settled.encode(), false, true);
+        }
+        List<Long> deletedIds = tombstoneRepository.findDeletedIdsSince(user.getId(), since.getUpdatedAt(),
+                Limit.of(MAX_SYNC_DELETED + 1));
+        if (deletedIds.size() > MAX_SYNC_DELETED) {
+            return new NotificationSyncDto(List.of(), List.of(), watermark, counts, settled.encode(), false, true);
+        }
+
+        int limit = Math.max(1, Math.min(size, MAX_SYNC_PAGE));
+        List<Notification> changed = notificationRepository.findChangedSince(user.getId(), since.getUpdatedAt(),
+                since.getId(), Limit.of(limit + 1));
+        boolean hasMore = changed.size() > limit;
+        if (hasMore) {
+            changed = changed.subList(0, limit);
+        }
+
+        NotificationSyncToken next = since;
+        if (!changed.isEmpty()) {
+            Notification last = changed.get(changed.size() - 1);
+            next = new NotificationSyncToken(last.getUpdatedAt(), last.getId());
+        }
+        // A full page must always advance, otherwise the client could never get past it
+        if (!hasMore && next.isAfter(settled)) {
+            next = since.isAfter(settled) ? since : settled;
+        }
+
+        List<NotificationDto> changedDtos = changed.stream()
+                .map(notification -> mapToDto(notification, readUpTo))
+                .collect(Collectors.toList());
+        return new NotificationSyncDto(changedDtos, deletedIds, watermark, counts, next.encode(), hasMore, false);
+    }
+
+    // Tombstones only need to outlive the oldest sync token still honoured
+    @Scheduled(initialDelayString = "${app.notifications.sync.tombstone-purge-interval-ms:3600000}",
+            fixedDelayString = "${app.notifications.sync.tombstone-purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        tombstoneRepository.deleteDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+    }
+
+    // Convert a new or still-open notification (never under the read watermark) to DTO
     private NotificationDto mapToDto(Notification notification) {
+        return mapToDto(notification, NO_WATERMARK);
+    }
+
+    // Convert Notification entity to DTO; notifications at or before the recipient's watermark are read
+    private NotificationDto mapToDto(Notification notification, LocalDateTime readUpTo) {
         return new NotificationDto(
                 notification.getId(),
                 notification.getMessage(),
-                notification.isRead(),
+                notification.isRead() || !notification.getCreatedAt().isAfter(readUpTo),
                 notification.getType(),
                 notification.getSender().getUsername(),
                 notification.getPost() != null ? notification.getPost().getId() : null,
-                notification.getCreatedAt());
+                notification.getCreatedAt(),
+                notification.getActorCount(),
+                latestActors(notification));
+    }
+
+    // The recipient's "read up to" watermark, or a time before any notification when they never marked all read
+    private LocalDateTime readUpTo(Long userId) {
+        return notificationStateRepository.findReadUpTo(userId).orElse(NO_WATERMARK);
+    }
+
+    // Notifications created before aggregation carry only their sender
+    private List<String> latestActors(Notification notification) {
+        if (notification.getLatestActors() == null || notification.getLatestActors().isEmpty()) {
+            return List.of(notification.getSender().getUsername());
+        }
+        return Arrays.asList(notification.getLatestActors().split(","));
+    }
+
+    // "alice", "alice and bob", "alice and 41 others"
+    private String describeActors(List<String> actors, int actorCount) {
+        if (actorCount <= 1) {
+            return actors.get(0);
+        }
+        if (actorCount == 2 && actors.size() >= 2) {
+            return actors.get(0) + " and " + actors.get(1);
+        }
+        int others = actorCount - 1;
+        return actors.get(0) + " and " + others + (others == 1 ? " other" : " others");
     }
 
     // Mark single notification as read
@@ -114,8 +502,9 @@ public class NotificationService {
             throw new UnauthorizedActionException("You are not authorized to access this notification.");
         }
 
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        if (notificationRepository.markAsRead(notificationId, LocalDateTime.now()) > 0) {
+            notificationStateRepository.addCounts(notification.getRecipient().getId(), 0, -1);
+        }
 
         // Send WebSocket updates
         webSocketService.notifyNotificationRead(username, notificationId);
@@ -129,24 +518,21 @@ public class NotificationService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
         
-        notificationRepository.markAllAsReadForUser(userId);
+        // One row: everything created up to now counts as read, nothing in the notifications table is touched
+        notificationStateRepository.markAllRead(userId, LocalDateTime.now());
 
         // Send WebSocket updates
         NotificationCountDto counts = getNotificationCounts(user.getUsername());
         webSocketService.sendNotificationCountsToUser(user.getUsername(), counts);
     }
 
-    // Get notification counts (total, read, unread)
+    // Get notification counts (total, read, unread) from the maintained counters in one lookup
     @Transactional(readOnly = true)
     public NotificationCountDto getNotificationCounts(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-
-        long totalCount = notificationRepository.countByRecipient(user);
-        long unreadCount = notificationRepository.countByRecipientAndIsRead(user, false);
-        long readCount = notificationRepository.countByRecipientAndIsRead(user, true);
-
-        return new NotificationCountDto(totalCount, unreadCount, readCount);
+        return notificationStateRepository.findCountsByUsername(username)
+                .map(counts -> new NotificationCountDto(counts.getTotalCount(), counts.getUnreadCount(),
+                        counts.getTotalCount() - counts.getUnreadCount()))
+                .orElseGet(() -> new NotificationCountDto(0, 0, 0));
     }
 
     // Delete a single notification
@@ -161,7 +547,10 @@ public class NotificationService {
             throw new UnauthorizedOperationException("You are not authorized to delete this notification.");
         }
 
-        notificationRepository.delete(notification);
+        Long recipientId = notification.getRecipient().getId();
+        NotificationCounts deleted = notificationRepository.deleteForRecipient(List.of(notificationId), recipientId,
+                LocalDateTime.now());
+        notificationStateRepository.addCounts(recipientId, -deleted.getTotalCount(), -deleted.getUnreadCount());
 
         // Send WebSocket updates
         webSocketService.notifyNotificationsDeleted(username, List.of(notificationId));
@@ -184,7 +573,10 @@ public class NotificationService {
             }
         });
 
-        notificationRepository.deleteAll(notifications);
+        NotificationCounts deleted = notificationRepository.deleteForRecipient(
+                notifications.stream().map(Notification::getId).collect(Collectors.toList()), user.getId(),
+                LocalDateTime.now());
+        notificationStateRepository.addCounts(user.getId(), -deleted.getTotalCount(), -deleted.getUnreadCount());
 
         // Send WebSocket updates
         webSocketService.notifyNotificationsDeleted(username, notificationIds);
@@ -200,41 +592,51 @@ public class NotificationService {
 
         Pageable pageable = PageRequest.of(0, 10);
         Page<Notification> notifications = notificationRepository
-                .findByRecipientAndIsReadOrderByCreatedAtDesc(user, false, pageable);
+                .findUnreadByRecipient(user, readUpTo(user.getId()), pageable);
 
         return notifications.stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
-    // Create notifications for all followers when user posts
-    @Transactional
-    public void createNotificationsForFollowers(List<User> followers, User sender, Notification.NotificationType type, String message, Post post) {
-        List<Notification> notifications = followers.stream()
-                // Prevent self-notifications
-                .filter(follower -> !follower.getId().equals(sender.getId())) 
-                .map(follower -> {
-                    Notification notification = new Notification();
-                    notification.setRecipient(follower);
-                    notification.setSender(sender);
-                    notification.setType(type);
-                    notification.setMessage(message);
-                    notification.setPost(post);
-                    notification.setRead(false);
-                    return notification;
-                })
-                .collect(Collectors.toList());
-        
-        notifications = notificationRepository.saveAll(notifications);
+    private static final class ActivityKey {
+        private final Long recipientId;
+        private final Long postId;
+        private final Notification.NotificationType type;
 
-        // Send real-time notifications to all followers via WebSocket
-        notifications.forEach(notification -> {
-            NotificationDto notificationDto = mapToDto(notification);
-            webSocketService.sendNotificationToUser(notification.getRecipient().getUsername(), notificationDto);
-            
-            // Send updated counts
-            NotificationCountDto counts = getNotificationCounts(notification.getRecipient().getUsername());
-            webSocketService.sendNotificationCountsToUser(notification.getRecipient().getUsername(), counts);
-        });
+        private ActivityKey(Long recipientId, Long postId, Notification.NotificationType type) {
+            this.recipientId = recipientId;
+            this.postId = postId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ActivityKey other)) {
+                return false;
+            }
+            return recipientId.equals(other.recipientId) && postId.equals(other.postId) && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(recipientId, postId, type);
+        }
+    }
+
+    // Distinct actors since the last flush, oldest first; guarded by the instance's monitor
+    private static final class PendingActivity {
+        private final LinkedHashSet<String> actors = new LinkedHashSet<>();
+        private Long latestSenderId;
+        private String action;
+        // Earliest activity in the group
+        private LocalDateTime since;
+        private boolean closed;
+
+        private void includeSince(LocalDateTime occurredAt) {
+            if (since == null || occurredAt.isBefore(since)) {
+                since = occurredAt;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.zerooneblog.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+// Opaque notification sync position: the last (updatedAt, id) pair a client has seen
+public class NotificationSyncToken {
+    private final LocalDateTime updatedAt;
+    private final Long id;
+
+    public NotificationSyncToken(LocalDateTime updatedAt, Long id) {
+        this.updatedAt = updatedAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isAfter(NotificationSyncToken other) {
+        int byTime = updatedAt.compareTo(other.updatedAt);
+        return byTime > 0 || (byTime == 0 && id > other.id);
+    }
+
+    // Encode as URL-safe base64 of "epochSecond:nano:id"
+    public String encode() {
+        String raw = updatedAt.toEpochSecond(ZoneOffset.UTC) + ":" + updatedAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Decode a token previously produced by encode(); blank means "no position yet"
+    public static NotificationSyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid sync token.");
+            }
+            LocalDateTime updatedAt = LocalDateTime.ofEpochSecond(Long.parseLong(parts[0]),
+                    Integer.parseInt(parts[1]), ZoneOffset.UTC);
+            return new NotificationSyncToken(updatedAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid sync token.");
+        }
+    }
+}
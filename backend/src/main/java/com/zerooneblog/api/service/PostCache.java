@@ -0,0 +1,143 @@
+package com.zerooneblog.api.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.zerooneblog.api.domain.Post;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.interfaces.dto.PostCacheStatsDto;
+import com.zerooneblog.api.interfaces.exception.ResourceNotFoundException;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.UserChangedEvent;
+import com.zerooneblog.api.service.mapper.PostMapper;
+
+// In-process, size-bounded (LRU) read-through cache of post snapshots keyed by post id
+@Component
+public class PostCache {
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final int maxSize;
+    private final Map<Long, CachedPost> entries;
+
+    // One token per key with a load in flight; invalidating the key drops it, so a load that raced with a
+    // write to that post is not cached while loads of other posts are unaffected
+    private final Map<Long, Object> loads = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PostCache(PostRepository postRepository, PostMapper postMapper,
+            @Value("${app.post-cache.max-size:10000}") int maxSize) {
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPost> eldest) {
+                if (size() > PostCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Return the cached snapshot, loading it from the database on a miss
+    @Transactional(readOnly = true)
+    public CachedPost get(Long postId) {
+        Object load = new Object();
+        synchronized (entries) {
+            CachedPost cached = entries.get(postId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            // A newer concurrent load of the same post takes over; the older one returns uncached
+            loads.put(postId, load);
+        }
+        misses.incrementAndGet();
+
+        CachedPost loaded;
+        try {
+            Post post = postRepository.findById(postId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
+            loaded = new CachedPost(postMapper.toDto(post, null));
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                loads.remove(postId, load);
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            if (loads.remove(postId, load)) {
+                entries.put(postId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(Long postId) {
+        synchronized (entries) {
+            loads.remove(postId);
+            if (entries.remove(postId) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    // Fold committed views into the cached snapshot instead of dropping it; a load racing with the flush may
+    // have read the old counts, so it is not cached
+    public void recordViews(Long postId, long views, long uniqueViewers) {
+        synchronized (entries) {
+            CachedPost cached = entries.get(postId);
+            if (cached != null) {
+                cached.addViews(views, uniqueViewers);
+            } else {
+                loads.remove(postId);
+            }
+        }
+    }
+
+    // Drop the snapshot once the change is committed (or immediately outside a transaction)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(event.getPostId());
+    }
+
+    // A deleted user's posts and engagement vanish in bulk, so start over rather than track every post
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isDeleted()) {
+            return;
+        }
+        synchronized (entries) {
+            loads.clear();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public PostCacheStatsDto getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        double hitRate = lookups == 0 ? 0.0 : (double) hitCount / lookups;
+        return new PostCacheStatsDto(size, maxSize, hitCount, missCount, evictions.get(), invalidations.get(),
+                hitRate);
+    }
+}
@@ -1,14 +1,19 @@
 package com.zerooneblog.api.service;
 
+import java.time.Instant;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 
 import com.zerooneblog.api.domain.*;
 import com.zerooneblog.api.infrastructure.persistence.*;
+import com.zerooneblog.api.infrastructure.security.CustomUserDetails;
 import com.zerooneblog.api.interfaces.dto.PostLikeResponseDto;
 import com.zerooneblog.api.interfaces.exception.ResourceNotFoundException;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.PostEngagementEvent;
 
 // Service for managing post likes
 @Service
@@ -17,85 +22,95 @@ public class PostLikeService {
         private final PostRepository postRepository;
         private final UserRepository userRepository;
         private final NotificationService notificationService;
-        private final PostService postService;
+        private final ApplicationEventPublisher eventPublisher;
+        private final LikeCounterBuffer likeCounterBuffer;
+        private final LikedPostsCache likedPostsCache;
 
         public PostLikeService(PostLikeRepository postLikeRepository, PostRepository postRepository,
                         UserRepository userRepository, NotificationService notificationService,
-                        PostService postService) {
+                        ApplicationEventPublisher eventPublisher, LikeCounterBuffer likeCounterBuffer,
+                        LikedPostsCache likedPostsCache) {
                 this.postLikeRepository = postLikeRepository;
                 this.postRepository = postRepository;
                 this.userRepository = userRepository;
                 this.notificationService = notificationService;
-                this.postService = postService;
+                this.eventPublisher = eventPublisher;
+                this.likeCounterBuffer = likeCounterBuffer;
+                this.likedPostsCache = likedPostsCache;
         }
 
-        // Add a like to a post (user cannot like the same post twice)
+        // Add a like to a post (user cannot like the same post twice). The access check, insert, counter
+        // increment and new count are one statement; the principal already carries the user id.
         @Transactional
         public PostLikeResponseDto likePost(Long postId, Authentication authentication) {
-                postService.validatePostAccess(postId, authentication);
-
-                String username = authentication.getName();
-                User user = userRepository.findByUsername(username)
-                                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
-                Post post = postRepository.findById(postId)
+                CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+                boolean writeBehind = likeCounterBuffer.isEnabled();
+                Long userId = principal.getUserId();
+                boolean admin = isAdmin(authentication);
+                Instant now = Instant.now();
+                LikeChange change = (writeBehind
+                                ? postLikeRepository.insertLikeDeferred(postId, userId, admin, now)
+                                : postLikeRepository.insertLike(postId, userId, admin, now))
                                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
-
-                // Check if post is already liked by user
-                if (postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId())) {
+                if (change.getLikedAtMillis() == null) {
                         throw new IllegalStateException("Post is already liked.");
                 }
+                likedPostsCache.record(userId, postId, true);
+                long likeCount = change.getLikeCount();
+                if (writeBehind) {
+                        likeCounterBuffer.record(postId, 1);
+                        likeCount += likeCounterBuffer.pendingDelta(postId) + 1;
+                }
 
-                try {
-                        // Create and save new like
-                        PostLike newLike = new PostLike();
-                        newLike.setUser(user);
-                        newLike.setPost(post);
-                        postLikeRepository.save(newLike);
+                eventPublisher.publishEvent(new PostChangedEvent(postId, false, null, userId));
+                eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Kind.LIKE,
+                                Instant.ofEpochMilli(change.getLikedAtMillis())));
 
-                        // Notify post author about the like
-                        User postAuthor = post.getAuthor();
-                        String message = user.getUsername() + " liked your post: \"" + post.getTitle() + "\"";
-                        notificationService.createNotification(
-                                        postAuthor,
-                                        user,
+                // Notify post author about the like; references avoid loading the post and the liker again
+                if (!change.getAuthorId().equals(principal.getUserId())) {
+                        notificationService.notifyPostActivity(
+                                        userRepository.getReferenceById(change.getAuthorId()),
+                                        principal.getUser(),
                                         Notification.NotificationType.NEW_LIKE,
-                                        message,
-                                        post);
-
-                } catch (DataIntegrityViolationException e) {
-                        throw new IllegalStateException("Post is already liked.");
+                                        "liked your post: \"" + change.getTitle() + "\"",
+                                        postRepository.getReferenceById(postId),
+                                        Instant.ofEpochMilli(change.getLikedAtMillis()));
                 }
 
-                // Return updated like count
-                long updatedLikeCount = postLikeRepository.countByPostId(postId);
-                return new PostLikeResponseDto(updatedLikeCount, true);
+                return new PostLikeResponseDto(likeCount, true);
         }
 
-        // Remove a like from a post
+        // Remove a like from a post; delete, counter decrement and new count are one statement
         @Transactional
         public PostLikeResponseDto unlikePost(Long postId, Authentication authentication) {
-                postService.validatePostAccess(postId, authentication);
-
-                String username = authentication.getName();
-                User user = userRepository.findByUsername(username)
-                                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
-                Post post = postRepository.findById(postId)
+                CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+                boolean writeBehind = likeCounterBuffer.isEnabled();
+                Long userId = principal.getUserId();
+                boolean admin = isAdmin(authentication);
+                LikeChange change = (writeBehind
+                                ? postLikeRepository.deleteLikeDeferred(postId, userId, admin)
+                                : postLikeRepository.deleteLike(postId, userId, admin))
                                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
-
-                // Check if post is actually liked by user
-                if (!postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId())) {
+                if (change.getLikedAtMillis() == null) {
                         throw new IllegalStateException("Post is not liked.");
                 }
+                likedPostsCache.record(userId, postId, false);
+                long likeCount = change.getLikeCount();
+                if (writeBehind) {
+                        likeCounterBuffer.record(postId, -1);
+                        likeCount += likeCounterBuffer.pendingDelta(postId) - 1;
+                }
 
-                // Find and delete the like
-                postLikeRepository.findByUserIdAndPostId(user.getId(), post.getId())
-                                .ifPresent(like -> postLikeRepository.delete(like));
+                eventPublisher.publishEvent(new PostChangedEvent(postId, false, null, userId));
+                eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Kind.UNLIKE,
+                                Instant.ofEpochMilli(change.getLikedAtMillis())));
 
-                // Return updated like count
-                long updatedLikeCount = postLikeRepository.countByPostId(postId);
-                return new PostLikeResponseDto(updatedLikeCount, false);
-        }       
+                return new PostLikeResponseDto(likeCount, false);
+        }
 
-}
\ No newline at end of file
+        // Admins may like hidden posts, like every other post access
+        private boolean isAdmin(Authentication authentication) {
+                return authentication.getAuthorities().stream()
+                                .anyMatch(authority -> ("ROLE_" + Role.ADMIN.name()).equals(authority.getAuthority()));
+        }
+}
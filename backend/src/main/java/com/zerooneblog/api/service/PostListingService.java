@@ -0,0 +1,76 @@
+package com.zerooneblog.api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.PostKey;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostSummary;
+import com.zerooneblog.api.interfaces.dto.PostResponse;
+import com.zerooneblog.api.interfaces.dto.PostsResponseDto;
+import com.zerooneblog.api.service.mapper.PostMapper;
+
+// Second phase of every post listing: turn an ordered page of post ids into DTOs
+@Service
+public class PostListingService {
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+
+    public PostListingService(PostRepository postRepository, PostMapper postMapper) {
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+    }
+
+    // Load post summaries for the given ids and map them, preserving the id order
+    @Transactional(readOnly = true)
+    public List<PostResponse> hydrate(List<Long> postIds, User currentUser) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSummary> postsById = postRepository.findSummariesByIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+
+        // Ids whose post vanished between the two phases are skipped
+        List<PostSummary> ordered = new ArrayList<>(postIds.size());
+        for (Long postId : postIds) {
+            PostSummary post = postsById.get(postId);
+            if (post != null) {
+                ordered.add(post);
+            }
+        }
+        return postMapper.toDtoList(ordered, currentUser);
+    }
+
+    // Build an offset page from a page of ids
+    @Transactional(readOnly = true)
+    public PostsResponseDto toPage(Page<Long> idPage, User currentUser) {
+        List<PostResponse> postsResponse = hydrate(idPage.getContent(), currentUser);
+        return new PostsResponseDto(postsResponse, idPage.getNumber(), idPage.getSize(),
+                idPage.getTotalElements(), idPage.getTotalPages(), idPage.isLast());
+    }
+
+    // Build a cursor page from size + 1 fetched keys. The cursor points past the last key of the page, so it
+    // stays correct when some of the page's posts vanished before they could be hydrated.
+    @Transactional(readOnly = true)
+    public PostsResponseDto toCursorPage(List<PostKey> postKeys, int size, User currentUser) {
+        boolean hasNext = postKeys.size() > size;
+        List<PostKey> pageKeys = hasNext ? postKeys.subList(0, size) : postKeys;
+        List<Long> postIds = pageKeys.stream().map(PostKey::getId).collect(Collectors.toList());
+        List<PostResponse> postsResponse = hydrate(postIds, currentUser);
+
+        String nextCursor = null;
+        if (hasNext) {
+            PostKey last = pageKeys.get(pageKeys.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new PostsResponseDto(postsResponse, size, nextCursor);
+    }
+}
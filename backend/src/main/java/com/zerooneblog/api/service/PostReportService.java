@@ -1,5 +1,6 @@
 package com.zerooneblog.api.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,6 +11,7 @@ import com.zerooneblog.api.infrastructure.persistence.ReportRepository;
 import com.zerooneblog.api.interfaces.dto.requestDto.ReportRequestDto;
 import com.zerooneblog.api.interfaces.exception.ResourceNotFoundException;
 import com.zerooneblog.api.interfaces.exception.UnauthorizedActionException;
+import com.zerooneblog.api.service.event.PostChangedEvent;
 
 // Service for managing post reports and flagging inappropriate content
 @Service
@@ -18,12 +20,15 @@ public class PostReportService {
     private final PostRepository postRepository;
     private final UserService userService;
     private final PostService postService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PostReportService(ReportRepository reportRepository, PostRepository postRepository, UserService userService, PostService postService) {
+    public PostReportService(ReportRepository reportRepository, PostRepository postRepository, UserService userService, PostService postService,
+            ApplicationEventPublisher eventPublisher) {
         this.reportRepository = reportRepository;
         this.postRepository = postRepository;
         this.userService = userService;
         this.postService = postService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Report a post for inappropriate content or violation
@@ -58,6 +63,8 @@ public class PostReportService {
         
         // Save report to database
         reportRepository.save(postReport);
+        // The report count is part of the post's rendering
+        eventPublisher.publishEvent(new PostChangedEvent(postId));
         
         return "The post with id: " + postId + " has been reported successfully! Reports count: "
                 + post.getReportedCount();
@@ -0,0 +1,96 @@
+package com.zerooneblog.api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zerooneblog.api.domain.Role;
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostSearchHit;
+import com.zerooneblog.api.interfaces.dto.PostResponse;
+import com.zerooneblog.api.interfaces.dto.PostSearchResponse;
+import com.zerooneblog.api.interfaces.dto.PostSearchResultDto;
+import com.zerooneblog.api.service.search.InMemorySearchEngine;
+
+// Service for ranked full-text search over post titles and content
+@Service
+public class PostSearchService {
+    private static final int MAX_QUERY_LENGTH = 200;
+    // Larger requested page sizes are clamped to this
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final PostRepository postRepository;
+    private final UserService userService;
+    private final PostListingService postListingService;
+    // Present only when app.search.engine=memory
+    private final Optional<InMemorySearchEngine> searchEngine;
+
+    public PostSearchService(PostRepository postRepository, UserService userService,
+            PostListingService postListingService, Optional<InMemorySearchEngine> searchEngine) {
+        this.postRepository = postRepository;
+        this.userService = userService;
+        this.postListingService = postListingService;
+        this.searchEngine = searchEngine;
+    }
+
+    // Search posts by relevance using keyset pagination on (rank, id); hidden posts only match for admins
+    @Transactional(readOnly = true)
+    public PostSearchResponse search(String query, String cursor, int size, Authentication authentication) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty or contain only whitespace");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must not exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+        SearchCursor after = SearchCursor.decode(cursor);
+
+        User currentUser = userService.getCurrentUserFromAuthentication(authentication);
+        boolean includeHidden = currentUser != null && currentUser.getRoles().contains(Role.ADMIN);
+
+        // Fetch one extra hit to know whether another page exists; the in-memory engine answers once loaded
+        List<PostSearchHit> hits;
+        if (searchEngine.isPresent() && searchEngine.get().isReady()) {
+            hits = searchEngine.get().searchPosts(query, includeHidden, after, size + 1);
+        } else if (after == null) {
+            hits = postRepository.searchPosts(query, includeHidden, size + 1);
+        } else {
+            hits = postRepository.searchPostsAfter(query, includeHidden, after.getRank(), after.getId(), size + 1);
+        }
+        boolean hasNext = hits.size() > size;
+        if (hasNext) {
+            hits = hits.subList(0, size);
+        }
+
+        List<Long> postIds = hits.stream().map(PostSearchHit::getId).collect(Collectors.toList());
+        Map<Long, PostResponse> postsById = postListingService.hydrate(postIds, currentUser).stream()
+                .collect(Collectors.toMap(PostResponse::getId, Function.identity()));
+
+        List<PostSearchResultDto> results = new ArrayList<>(hits.size());
+        for (PostSearchHit hit : hits) {
+            PostResponse post = postsById.get(hit.getId());
+            if (post != null) {
+                results.add(new PostSearchResultDto(post, hit.getSnippet(), hit.getRank()));
+            }
+        }
+
+        // The cursor follows the last hit (not the last hydrated post) so vanished posts cannot stall paging
+        String nextCursor = null;
+        if (hasNext && !hits.isEmpty()) {
+            PostSearchHit lastHit = hits.get(hits.size() - 1);
+            nextCursor = new SearchCursor(lastHit.getRank(), lastHit.getId()).encode();
+        }
+        return new PostSearchResponse(results, size, nextCursor);
+    }
+}
@@ -6,9 +6,13 @@ import com.zerooneblog.api.infrastructure.persistence.*;
 import com.zerooneblog.api.interfaces.dto.*;
 import com.zerooneblog.api.interfaces.exception.ResourceNotFoundException;
 import com.zerooneblog.api.interfaces.exception.UnauthorizedActionException;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.PostPublishedEvent;
 import com.zerooneblog.api.service.mapper.PostMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.*;
@@ -19,6 +23,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class PostService {
     private static final int MAX_MEDIA_FILES = 5;
+    // Larger requested page sizes are clamped to this
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final PostRepository postRepository;
     private final UserRepository userRepository;
@@ -26,18 +32,35 @@ public class PostService {
     private final PostMapper postMapper;
     private final FileStorageService fileStorageService;
     private final PostMediaRepository postMediaRepository;
-    private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final TrendingService trendingService;
+    private final PostListingService postListingService;
+    private final PostCache postCache;
+    private final LikedPostsCache likedPostsCache;
+    private final UserNotificationStateRepository notificationStateRepository;
+    private final NotificationTombstoneRepository notificationTombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PostService(PostRepository postRepository, UserRepository userRepository, UserService userService,
             PostMapper postMapper, FileStorageService fileStorageService, PostMediaRepository postMediaRepository,
-            NotificationService notificationService) {
+            TimelineService timelineService,
+            TrendingService trendingService, PostListingService postListingService, PostCache postCache, LikedPostsCache likedPostsCache,
+            UserNotificationStateRepository notificationStateRepository,
+            NotificationTombstoneRepository notificationTombstoneRepository, ApplicationEventPublisher eventPublisher) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.userService = userService;
         this.postMapper = postMapper;
         this.fileStorageService = fileStorageService;
         this.postMediaRepository = postMediaRepository;
-        this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.trendingService = trendingService;
+        this.postListingService = postListingService;
+        this.postCache = postCache;
+        this.likedPostsCache = likedPostsCache;
+        this.notificationStateRepository = notificationStateRepository;
+        this.notificationTombstoneRepository = notificationTombstoneRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // Create a new post with optional media files and notify followers
@@ -84,17 +107,16 @@ public class PostService {
             }
         }
 
-        // Notify all followers about new post
-        List<User> followers = userRepository.findFollowersByUserId(author.getId());
-        if (!followers.isEmpty()) {
-            String message = author.getUsername() + " posted: \"" + request.getTitle() + "\"";
-            notificationService.createNotificationsForFollowers(
-                    followers,
-                    author,
-                    Notification.NotificationType.NEW_POST,
-                    message,
-                    savedPost);
-        }
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), true, savedPost.getAuthor().getId(), null));
+
+        // Push the post into every follower's home timeline; a no-op for pulled (high-follower) authors,
+        // whose posts are merged into feeds at read time
+        timelineService.fanOutPost(savedPost);
+
+        // Followers of every author, pulled ones included, are notified after commit by
+        // NotificationFanOutService, off the request thread
+        eventPublisher.publishEvent(new PostPublishedEvent(savedPost.getId(), author.getId(), author.getUsername(),
+                savedPost.getTitle(), savedPost.getCreatedAt()));
         return postMapper.toDto(savedPost, author);
     }
 
@@ -102,57 +124,104 @@ public class PostService {
     @Transactional(readOnly = true)
     public PostsResponseDto getAllPosts(int page, int size, Authentication authentication) {
         User currentUser = userService.getCurrentUserFromAuthentication(authentication);
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Post> postsPage = postRepository.findAllWithDetails(pageable);
-        
-        List<PostResponse> postsResponse = postsPage.getContent().stream()
-                .map(post -> postMapper.toDto(post, currentUser)).collect(Collectors.toList());
-        return new PostsResponseDto(postsResponse, postsPage.getNumber(), postsPage.getSize(),
-                postsPage.getTotalElements(), postsPage.getTotalPages(), false);
+        Page<Long> idPage = postRepository.findPublicPostIds(PageRequest.of(page, size));
+        return postListingService.toPage(idPage, currentUser);
+    }
+
+    // Get public posts using keyset pagination (no offset scan, no count query)
+    @Transactional(readOnly = true)
+    public PostsResponseDto getAllPostsByCursor(String cursor, int size, Authentication authentication) {
+        User currentUser = userService.getCurrentUserFromAuthentication(authentication);
+        PostCursor after = PostCursor.decode(cursor);
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        // Fetch one extra id to know whether another page exists
+        Limit limit = Limit.of(size + 1);
+        List<PostKey> postKeys = after == null
+                ? postRepository.findLatestPublicPostKeys(limit)
+                : postRepository.findPublicPostKeysBefore(after.getCreatedAt(), after.getId(), limit);
+        return postListingService.toCursorPage(postKeys, size, currentUser);
+    }
+
+    // Get trending posts: an offset page over the in-memory decayed-engagement ranking
+    @Transactional(readOnly = true)
+    public PostsResponseDto getTrendingPosts(int page, int size, Authentication authentication) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must not be negative and size must be at least 1.");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+        User currentUser = userService.getCurrentUserFromAuthentication(authentication);
+        // The ranking holds at most a few thousand posts, so pages past its end are empty without a lookup
+        long total = trendingService.size();
+        long offset = (long) page * size;
+        List<Long> topIds = offset < total ? trendingService.topPostIds((int) offset + size) : List.of();
+        List<Long> pageIds = topIds.size() > offset ? topIds.subList((int) offset, topIds.size()) : List.of();
+
+        // Hidden posts normally leave the ranking on hide; filter anyway in case of a race
+        List<PostResponse> posts = postListingService.hydrate(pageIds, currentUser).stream()
+                .filter(post -> !post.isHidden())
+                .collect(Collectors.toList());
+        int totalPages = (int) ((total + size - 1) / size);
+        return new PostsResponseDto(posts, page, size, total, totalPages, page + 1 >= totalPages);
     }
 
     // Get all posts for admin (including hidden posts)
     @Transactional(readOnly = true)
     public PostsResponseDto getAllPostsForAdmin(int page, int size, Authentication authentication) {
         User currentUser = userService.getCurrentUserFromAuthentication(authentication);
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Post> postsPage = postRepository.findAll(pageable);
-        
-        List<PostResponse> postsResponse = postsPage.getContent().stream()
-                .map(post -> postMapper.toDto(post, currentUser)).collect(Collectors.toList());
-        return new PostsResponseDto(postsResponse, postsPage.getNumber(), postsPage.getSize(),
-                postsPage.getTotalElements(), postsPage.getTotalPages(), false);
+        Page<Long> idPage = postRepository.findAllPostIds(PageRequest.of(page, size));
+        return postListingService.toPage(idPage, currentUser);
+    }
+
+    // Get all posts ordered by total views for admins
+    @Transactional(readOnly = true)
+    public PostsResponseDto getMostViewedPostsForAdmin(int page, int size, Authentication authentication) {
+        User currentUser = userService.getCurrentUserFromAuthentication(authentication);
+        Page<Long> idPage = postRepository.findMostViewedPostIds(PageRequest.of(page, size));
+        return postListingService.toPage(idPage, currentUser);
     }
 
-    // Get personalized feed from followed users
+    // Get personalized feed: the user's materialized timeline merged with posts of pulled authors they follow
     @Transactional(readOnly = true)
     public PostsResponseDto getFeedForCurrentUser(int page, int size, Authentication authentication) {
         User currentUser = userService.getCurrentUserFromAuthentication(authentication);
+        if (page == 0) {
+            timelineService.ensureSeeded(currentUser.getId());
+        }
 
-        // Get list of users the current user is following
-        List<Long> followedUserIds = userRepository.findFollowingIds(currentUser.getId());
+        Page<Long> idPage = timelineService.findFeedPostIds(currentUser.getId(), PageRequest.of(page, size));
+        return postListingService.toPage(idPage, currentUser);
+    }
 
-        if (followedUserIds.isEmpty()) {
-            return new PostsResponseDto();
+    // Get personalized feed (timeline merged with pulled authors) using keyset pagination
+    @Transactional(readOnly = true)
+    public PostsResponseDto getFeedForCurrentUserByCursor(String cursor, int size, Authentication authentication) {
+        User currentUser = userService.getCurrentUserFromAuthentication(authentication);
+        PostCursor after = PostCursor.decode(cursor);
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
         }
+        size = Math.min(size, MAX_PAGE_SIZE);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Post> postsPage = postRepository.findPostsByUserIdIn(followedUserIds, pageable);
-
-        List<PostResponse> postsResponse = postsPage.getContent().stream()
-                .map(post -> postMapper.toDto(post, currentUser)).collect(Collectors.toList());
-        return new PostsResponseDto(postsResponse, postsPage.getNumber(), postsPage.getSize(),
-                postsPage.getTotalElements(), postsPage.getTotalPages(), false);
+        if (after == null) {
+            timelineService.ensureSeeded(currentUser.getId());
+        }
+        List<PostKey> postKeys = timelineService.findFeedPostKeys(currentUser.getId(), after, size + 1);
+        return postListingService.toCursorPage(postKeys, size, currentUser);
     }
 
-    // Get a single post by ID (validates access for hidden posts)
+    // Get a single post by ID (served from the post cache; validates access for hidden posts)
     @Transactional(readOnly = true)
     public PostResponse getPostById(Long postId, Authentication authentication) {
-        validatePostAccess(postId, authentication);
         User currentUser = userService.getCurrentUserFromAuthentication(authentication);
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
-        return postMapper.toDto(post, currentUser);
+        CachedPost post = postCache.get(postId);
+        checkHiddenPostAccess(post, currentUser);
+
+        boolean liked = currentUser != null && likedPostsCache.isLiked(currentUser.getId(), postId);
+        return post.toResponse(liked);
     }
 
     // Update a post (only by author)
@@ -209,6 +278,7 @@ public class PostService {
         }
 
         Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, true, savedPost.getAuthor().getId(), null));
         return postMapper.toDto(savedPost, currentUser);
     }
 
@@ -226,8 +296,11 @@ public class PostService {
                     String.format("User '%s' is not authorized to delete post %d", username, id));
         }
         
-        // Delete post and associated media
+        // Delete post and associated media (timeline entries and notifications cascade in the database)
+        notificationStateRepository.subtractNotificationsOfPost(id);
+        notificationTombstoneRepository.recordNotificationsOfPost(id, LocalDateTime.now());
         postRepository.delete(post);
+        eventPublisher.publishEvent(new PostChangedEvent(id, true, post.getAuthor().getId(), null));
         return "Post " + id + " has been deleted successfully!";
     }
 
@@ -264,24 +337,26 @@ public class PostService {
     // Get all hidden posts for admin review
     @Transactional(readOnly = true)
     public Page<PostResponse> getHiddenPosts(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Post> hiddenPosts = postRepository.findAllHiddenPosts(pageable);
-        return hiddenPosts.map(post -> postMapper.toDto(post, null));
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Long> hiddenPostIds = postRepository.findHiddenPostIds(pageable);
+        return new PageImpl<>(postListingService.hydrate(hiddenPostIds.getContent(), null), pageable,
+                hiddenPostIds.getTotalElements());
     }
 
     // Validate user access to post (check if hidden and user is admin)
     @Transactional(readOnly = true)
     public void validatePostAccess(Long postId, Authentication authentication) {
         User currentUser = userService.getCurrentUserFromAuthentication(authentication);
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
+        checkHiddenPostAccess(postCache.get(postId), currentUser);
+    }
 
-        // Block non-admin access to hidden posts
+    // Block non-admin access to hidden posts
+    private void checkHiddenPostAccess(CachedPost post, User currentUser) {
         if (post.isHidden()) {
             boolean isAdmin = currentUser != null &&
                     currentUser.getRoles().contains(Role.ADMIN);
             if (!isAdmin) {
-                throw new ResourceNotFoundException("Post", "id", postId);
+                throw new ResourceNotFoundException("Post", "id", post.getId());
             }
         }
     }
@@ -0,0 +1,66 @@
+package com.zerooneblog.api.service;
+
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import com.zerooneblog.api.interfaces.dto.PresenceStatsDto;
+
+// Which users have an open STOMP session on this instance (the simple broker only delivers to those).
+// Sessions are authenticated by WebSocketAuthInterceptor on CONNECT, so the connected event carries the user.
+@Service
+public class PresenceRegistry {
+
+    // Open session ids per username; a user is online while at least one tab is connected
+    private final ConcurrentHashMap<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user == null || sessionId == null) {
+            return;
+        }
+        connects.incrementAndGet();
+        sessionsByUser.compute(user.getName(), (username, sessions) -> {
+            Set<String> updated = sessions != null ? sessions : new HashSet<>();
+            updated.add(sessionId);
+            return updated;
+        });
+    }
+
+    // Also fires for sessions that dropped without a DISCONNECT frame, possibly more than once per session
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        Principal user = event.getUser();
+        if (user == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(user.getName(), (username, sessions) -> {
+            if (sessions.remove(event.getSessionId())) {
+                disconnects.incrementAndGet();
+            }
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public boolean isOnline(String username) {
+        return sessionsByUser.containsKey(username);
+    }
+
+    public PresenceStatsDto getStats() {
+        int sessions = sessionsByUser.values().stream().mapToInt(Set::size).sum();
+        return new PresenceStatsDto(sessionsByUser.size(), sessions, connects.get(), disconnects.get());
+    }
+}
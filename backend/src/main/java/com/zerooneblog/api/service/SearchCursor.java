@@ -0,0 +1,46 @@
+package com.zerooneblog.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor pointing at the last (rank, id) pair of a search results page
+public class SearchCursor {
+    private final float rank;
+    private final Long id;
+
+    public SearchCursor(float rank, Long id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // Encode as URL-safe base64 of "rankBits:id" so the rank round-trips exactly
+    public String encode() {
+        String raw = Float.floatToIntBits(rank) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Decode a cursor previously produced by encode(); blank means "start from the best match"
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new SearchCursor(Float.intBitsToFloat(Integer.parseInt(parts[0])), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
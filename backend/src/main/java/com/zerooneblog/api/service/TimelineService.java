@@ -0,0 +1,162 @@
+package com.zerooneblog.api.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zerooneblog.api.domain.Post;
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.PostKey;
+import com.zerooneblog.api.infrastructure.persistence.TimelineEntryRepository;
+import com.zerooneblog.api.infrastructure.persistence.TimelineSeedRepository;
+
+// Service maintaining per-user home timelines: fan-out-on-write for regular authors, merged at read time
+// (pull) for authors whose follower count reaches the configured threshold. Timelines that grew are
+// remembered and trimmed back to the maximum length in bounded batches; the set is lost on restart, which
+// only leaves those timelines a little long until their next new entry.
+@Service
+public class TimelineService {
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final TimelineSeedRepository timelineSeedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLength;
+    private final int followBackfill;
+    private final long pullThreshold;
+    private final int trimBatchSize;
+
+    // Readers whose timeline gained entries since the last trim
+    private final Set<Long> grownTimelines = ConcurrentHashMap.newKeySet();
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository,
+            TimelineSeedRepository timelineSeedRepository, PlatformTransactionManager transactionManager,
+            @Value("${app.feed.timeline.max-length:800}") int maxLength,
+            @Value("${app.feed.timeline.follow-backfill:20}") int followBackfill,
+            @Value("${app.feed.pull-threshold:10000}") long pullThreshold,
+            @Value("${app.feed.timeline.trim-batch-size:500}") int trimBatchSize) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.timelineSeedRepository = timelineSeedRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLength = maxLength;
+        this.followBackfill = followBackfill;
+        this.pullThreshold = pullThreshold;
+        this.trimBatchSize = trimBatchSize;
+    }
+
+    // Authors at or above the threshold are never fanned out; readers pull their posts instead
+    public boolean isPulledAuthor(User author) {
+        return author.getFollowerCount() >= pullThreshold;
+    }
+
+    // Push a new (or newly visible) post into the timelines of the author's followers
+    @Transactional
+    public void fanOutPost(Post post) {
+        if (isPulledAuthor(post.getAuthor())) {
+            return;
+        }
+        grownTimelines.addAll(
+                timelineEntryRepository.fanOutPost(post.getId(), post.getAuthor().getId(), post.getCreatedAt()));
+    }
+
+    // Remove a post from every timeline (post hidden; deletes cascade through the foreign key)
+    @Transactional
+    public void removePost(Long postId) {
+        timelineEntryRepository.deleteByPostId(postId);
+    }
+
+    // Copy the followed author's latest posts into the follower's timeline (pulled authors are read live)
+    @Transactional
+    public void onFollow(Long followerId, User author) {
+        if (isPulledAuthor(author)) {
+            return;
+        }
+        if (timelineEntryRepository.backfillFromAuthor(followerId, author.getId(), followBackfill) > 0) {
+            grownTimelines.add(followerId);
+        }
+    }
+
+    // Drop the unfollowed author's posts from the follower's timeline
+    @Transactional
+    public void onUnfollow(Long followerId, Long authorId) {
+        timelineEntryRepository.deleteByUserIdAndAuthorId(followerId, authorId);
+    }
+
+    // Lazily build a reader's timeline once (e.g. accounts older than the timeline store); the seed marker,
+    // not the presence of entries, says whether that happened
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void ensureSeeded(Long userId) {
+        if (timelineSeedRepository.existsById(userId)
+                || timelineSeedRepository.markSeeded(userId, Instant.now()) == 0) {
+            return;
+        }
+        if (timelineEntryRepository.seedTimeline(userId, maxLength) > 0) {
+            grownTimelines.add(userId);
+        }
+    }
+
+    // One offset page of the merged home feed
+    @Transactional(readOnly = true)
+    public Page<Long> findFeedPostIds(Long userId, Pageable pageable) {
+        List<Long> postIds = timelineEntryRepository.findFeedPostIds(userId, pullThreshold,
+                pageable.getOffset() + pageable.getPageSize(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(postIds, pageable,
+                () -> timelineEntryRepository.countFeedPosts(userId, pullThreshold));
+    }
+
+    // Up to limit keys of the merged home feed, newest first, strictly after the cursor when one is given
+    @Transactional(readOnly = true)
+    public List<PostKey> findFeedPostKeys(Long userId, PostCursor after, int limit) {
+        return after == null
+                ? timelineEntryRepository.findLatestFeedPostKeys(userId, pullThreshold, limit)
+                : timelineEntryRepository.findFeedPostKeysBefore(userId, pullThreshold, after.getCreatedAt(),
+                        after.getId(), limit);
+    }
+
+    // Periodically cut the timelines that grew back to the configured length, one transaction per batch
+    @Scheduled(fixedDelayString = "${app.feed.timeline.trim-interval-ms:300000}")
+    public void trimTimelines() {
+        List<Long> batch = new ArrayList<>(trimBatchSize);
+        Iterator<Long> grown = grownTimelines.iterator();
+        while (grown.hasNext()) {
+            batch.add(grown.next());
+            grown.remove();
+            if (batch.size() == trimBatchSize || !grown.hasNext()) {
+                if (!trimBatch(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(trimBatchSize);
+            }
+        }
+    }
+
+    // Put a failed batch back for the next run
+    private boolean trimBatch(List<Long> userIds) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> timelineEntryRepository.trimTimelines(userIds, maxLength));
+            return true;
+        } catch (DataAccessException e) {
+            grownTimelines.addAll(userIds);
+            log.warn("Trimming {} timelines failed; retrying next run", userIds.size(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.zerooneblog.api.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zerooneblog.api.domain.TrendingScore;
+import com.zerooneblog.api.infrastructure.persistence.CommentRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostLikeRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostScore;
+import com.zerooneblog.api.infrastructure.persistence.TrendingScoreRepository;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.PostEngagementEvent;
+
+// Service keeping a bounded top-K of posts ranked by exponentially time-decayed engagement. Scores use
+// forward decay: an engagement at time t adds weight * 2^((t - epoch) / halfLife), so stored values never
+// need to be decayed in place and their order is the order of the current scores. The epoch is moved
+// forward at checkpoints to keep the exponent small.
+@Service
+public class TrendingService {
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    // Rebase once the exponent passes this many half-lives (2^64 is far from double overflow)
+    private static final double REBASE_AFTER_HALF_LIVES = 64;
+    // Entries whose current score drops below this are forgotten
+    private static final double MIN_SCORE = 1e-3;
+    // How far back the one-time seed looks, in half-lives
+    private static final int SEED_HALF_LIVES = 8;
+
+    private final TrendingScoreRepository trendingScoreRepository;
+    private final PostRepository postRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final CommentRepository commentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double halfLifeSeconds;
+    private final int capacity;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final double viewWeight;
+
+    // Stored (forward-decayed) value per tracked post, plus the same entries ordered by value
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(
+            Comparator.comparingDouble(Entry::value).thenComparingLong(Entry::postId));
+    private Instant epoch = Instant.now();
+    // Checkpoints wait for the initial load so they never overwrite the stored ranking with an empty one
+    private volatile boolean loaded;
+
+    public TrendingService(TrendingScoreRepository trendingScoreRepository, PostRepository postRepository,
+            PostLikeRepository postLikeRepository, CommentRepository commentRepository,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${app.trending.half-life-hours:12}") double halfLifeHours,
+            @Value("${app.trending.capacity:5000}") int capacity,
+            @Value("${app.trending.like-weight:1.0}") double likeWeight,
+            @Value("${app.trending.comment-weight:3.0}") double commentWeight,
+            @Value("${app.trending.view-weight:0.1}") double viewWeight) {
+        this.trendingScoreRepository = trendingScoreRepository;
+        this.postRepository = postRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.commentRepository = commentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.halfLifeSeconds = halfLifeHours * 3600;
+        this.capacity = capacity;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.viewWeight = viewWeight;
+    }
+
+    // Apply a committed like/comment change; removals cancel the decayed weight of the original engagement
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEngagement(PostEngagementEvent event) {
+        switch (event.getKind()) {
+            case LIKE -> add(event.getPostId(), likeWeight, event.getOccurredAt());
+            case UNLIKE -> add(event.getPostId(), -likeWeight, event.getOccurredAt());
+            case COMMENT -> add(event.getPostId(), commentWeight, event.getOccurredAt());
+            case UNCOMMENT -> add(event.getPostId(), -commentWeight, event.getOccurredAt());
+        }
+    }
+
+    // Count a batch of views that happened around now
+    public void recordViews(Long postId, long views) {
+        if (views > 0) {
+            add(postId, viewWeight * views, Instant.now());
+        }
+    }
+
+    // Hidden or deleted posts leave the ranking; they re-enter with new engagement once visible again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!event.isContentChanged()) {
+            return;
+        }
+        synchronized (this) {
+            if (!entries.containsKey(event.getPostId())) {
+                return;
+            }
+        }
+        Boolean visible = transactionTemplate.execute(status ->
+                postRepository.existsByIdAndHidden(event.getPostId(), false));
+        if (!Boolean.TRUE.equals(visible)) {
+            remove(event.getPostId());
+        }
+    }
+
+    // Ids of the currently highest-scored posts, best first; entries that have decayed away are skipped
+    public synchronized List<Long> topPostIds(int limit) {
+        List<Long> postIds = new ArrayList<>(Math.min(limit, entries.size()));
+        double toCurrent = decayFactor(Instant.now());
+        Iterator<Entry> iterator = ranking.descendingIterator();
+        while (iterator.hasNext() && postIds.size() < limit) {
+            Entry entry = iterator.next();
+            if (entry.value() * toCurrent < MIN_SCORE) {
+                break;
+            }
+            postIds.add(entry.postId());
+        }
+        return postIds;
+    }
+
+    // Number of posts topPostIds can currently return
+    public synchronized int size() {
+        double toCurrent = decayFactor(Instant.now());
+        int live = 0;
+        Iterator<Entry> iterator = ranking.descendingIterator();
+        while (iterator.hasNext() && iterator.next().value() * toCurrent >= MIN_SCORE) {
+            live++;
+        }
+        return live;
+    }
+
+    // Restore the last checkpoint, or seed once from recent likes and comments when there is none
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<TrendingScore> checkpoint = trendingScoreRepository.findAll();
+        synchronized (this) {
+            // A checkpointed score is the current score as of checkpointedAt
+            for (TrendingScore score : checkpoint) {
+                addStored(score.getPostId(), score.getScore() / decayFactor(score.getCheckpointedAt()));
+            }
+        }
+        if (checkpoint.isEmpty()) {
+            seed();
+        }
+        loaded = true;
+        log.info("Trending scores loaded for {} posts", size());
+    }
+
+    // Persist the current scores so a restart does not lose the ranking. Entries that decayed away, and
+    // posts hidden or deleted without their change event reaching the ranking, are dropped on the way.
+    @Scheduled(initialDelayString = "${app.trending.checkpoint-interval-ms:60000}",
+            fixedDelayString = "${app.trending.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (!loaded) {
+            return;
+        }
+        purgeInvisible();
+        Instant now = Instant.now();
+        List<Object[]> rows = new ArrayList<>();
+        synchronized (this) {
+            rebaseIfNeeded(now);
+            double toCurrent = decayFactor(now);
+            List<Entry> decayed = new ArrayList<>();
+            for (Entry entry : ranking) {
+                double score = entry.value() * toCurrent;
+                if (score < MIN_SCORE) {
+                    decayed.add(entry);
+                } else {
+                    rows.add(new Object[] { entry.postId(), score, Timestamp.from(now) });
+                }
+            }
+            for (Entry entry : decayed) {
+                remove(entry.postId());
+            }
+        }
+        // Replace the whole checkpoint in one transaction with a single JDBC batch
+        transactionTemplate.executeWithoutResult(status -> {
+            trendingScoreRepository.deleteAllInBatch();
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO trending_scores (post_id, score, checkpointed_at) VALUES (?, ?, ?)", rows);
+        });
+    }
+
+    private void seed() {
+        Instant since = Instant.now().minus(Duration.ofSeconds((long) (halfLifeSeconds * SEED_HALF_LIVES)));
+        List<PostScore> likes = transactionTemplate.execute(status ->
+                postLikeRepository.sumDecayedLikes(since, halfLifeSeconds));
+        LocalDateTime localSince = LocalDateTime.now().minusSeconds((long) (halfLifeSeconds * SEED_HALF_LIVES));
+        List<PostScore> comments = transactionTemplate.execute(status ->
+                commentRepository.sumDecayedComments(localSince, halfLifeSeconds));
+        synchronized (this) {
+            double toStored = 1 / decayFactor(Instant.now());
+            for (PostScore score : likes) {
+                addStored(score.getPostId(), score.getScore() * likeWeight * toStored);
+            }
+            for (PostScore score : comments) {
+                addStored(score.getPostId(), score.getScore() * commentWeight * toStored);
+            }
+        }
+    }
+
+    // Drop tracked posts that are no longer publicly visible, e.g. re-added by engagement right after a hide
+    private void purgeInvisible() {
+        List<Long> tracked;
+        synchronized (this) {
+            tracked = new ArrayList<>(entries.keySet());
+        }
+        if (tracked.isEmpty()) {
+            return;
+        }
+        Set<Long> visible = new HashSet<>(transactionTemplate.execute(status ->
+                postRepository.findVisibleIdsIn(tracked)));
+        for (Long postId : tracked) {
+            if (!visible.contains(postId)) {
+                remove(postId);
+            }
+        }
+    }
+
+    private synchronized void add(Long postId, double weight, Instant occurredAt) {
+        addStored(postId, weight / decayFactor(occurredAt));
+    }
+
+    private void addStored(Long postId, double delta) {
+        Entry current = entries.get(postId);
+        if (current == null && delta <= 0) {
+            // Removal for a post that already fell out of the top-K
+            return;
+        }
+        double value = (current != null ? current.value() : 0) + delta;
+        if (current != null) {
+            ranking.remove(current);
+            entries.remove(postId);
+        }
+        if (value * decayFactor(Instant.now()) >= MIN_SCORE) {
+            put(postId, value);
+        }
+    }
+
+    private synchronized void remove(Long postId) {
+        Entry current = entries.remove(postId);
+        if (current != null) {
+            ranking.remove(current);
+        }
+    }
+
+    // Insert and evict the lowest entry when over capacity
+    private void put(Long postId, double value) {
+        Entry entry = new Entry(postId, value);
+        entries.put(postId, entry);
+        ranking.add(entry);
+        if (entries.size() > capacity) {
+            Entry lowest = ranking.pollFirst();
+            entries.remove(lowest.postId());
+        }
+    }
+
+    // Multiplier turning a stored value into the score as of `at` (and its inverse for new weights)
+    private double decayFactor(Instant at) {
+        double seconds = Duration.between(epoch, at).toMillis() / 1000.0;
+        return Math.pow(2, -seconds / halfLifeSeconds);
+    }
+
+    private void rebaseIfNeeded(Instant now) {
+        double halfLives = Duration.between(epoch, now).toMillis() / 1000.0 / halfLifeSeconds;
+        if (halfLives < REBASE_AFTER_HALF_LIVES) {
+            return;
+        }
+        double factor = decayFactor(now);
+        List<Entry> rescaled = new ArrayList<>(ranking.size());
+        for (Entry entry : ranking) {
+            double value = entry.value() * factor;
+            if (value >= MIN_SCORE) {
+                rescaled.add(new Entry(entry.postId(), value));
+            }
+        }
+        entries.clear();
+        ranking.clear();
+        epoch = now;
+        for (Entry entry : rescaled) {
+            entries.put(entry.postId(), entry);
+            ranking.add(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final Long postId;
+        private final double value;
+
+        Entry(Long postId, double value) {
+            this.postId = postId;
+            this.value = value;
+        }
+
+        Long postId() {
+            return postId;
+        }
+
+        double value() {
+            return value;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.zerooneblog.api.service;
 
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,16 +11,20 @@ import com.zerooneblog.api.infrastructure.persistence.UserReportRepository;
 import com.zerooneblog.api.interfaces.dto.requestDto.UserReportRequest;
 // import com.zerooneblog.api.interfaces.exception.DuplicateResourceException;
 import com.zerooneblog.api.interfaces.exception.UnauthorizedActionException;
+import com.zerooneblog.api.service.event.UserChangedEvent;
 
 // Service for managing user reports and flagging inappropriate user behavior
 @Service
 public class UserReportService {
     private final UserReportRepository userReportRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserReportService(UserReportRepository userReportRepository, UserService userService) {
+    public UserReportService(UserReportRepository userReportRepository, UserService userService,
+            ApplicationEventPublisher eventPublisher) {
         this.userReportRepository = userReportRepository;
         this.userService = userService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Report a user for inappropriate behavior or harassment
@@ -44,6 +49,8 @@ public class UserReportService {
         // Increment report counts for both users
         toBeReportedUser.setReportedCount(toBeReportedUser.getReportedCount() + 1L);
         currentUser.setReportingCount(toBeReportedUser.getReportingCount() + 1L);
+        eventPublisher.publishEvent(new UserChangedEvent(toBeReportedUser.getId(), false));
+        eventPublisher.publishEvent(new UserChangedEvent(currentUser.getId(), false));
     }
 
 }
\ No newline at end of file
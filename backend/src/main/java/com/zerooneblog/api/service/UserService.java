@@ -1,8 +1,16 @@
 package com.zerooneblog.api.service;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,28 +18,41 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.zerooneblog.api.domain.Notification;
-import com.zerooneblog.api.domain.Post;
 import com.zerooneblog.api.domain.User;
 import com.zerooneblog.api.infrastructure.persistence.PostRepository;
 import com.zerooneblog.api.infrastructure.persistence.UserRepository;
 import com.zerooneblog.api.interfaces.dto.*;
 import com.zerooneblog.api.interfaces.exception.*;
-import com.zerooneblog.api.service.mapper.PostMapper;
+import com.zerooneblog.api.service.event.UserChangedEvent;
+import com.zerooneblog.api.service.search.InMemorySearchEngine;
+import com.zerooneblog.api.service.search.InvertedIndex;
 
 // Service for managing user profiles, follows, and suggestions
 @Service
 public class UserService {
+    // Larger requested page sizes are clamped to this
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final PostRepository postRepository;
-    private final PostMapper postMapper;
+    private final PostListingService postListingService;
     private final NotificationService notificationService;
-
-    public UserService(UserRepository userRepository, PostRepository postRepository, PostMapper postMapper,
-            NotificationService notificationService) {
+    private final TimelineService timelineService;
+    private final ApplicationEventPublisher eventPublisher;
+    // Present only when app.search.engine=memory
+    private final Optional<InMemorySearchEngine> searchEngine;
+
+    public UserService(UserRepository userRepository, PostRepository postRepository,
+            PostListingService postListingService,
+            NotificationService notificationService, TimelineService timelineService,
+            ApplicationEventPublisher eventPublisher, Optional<InMemorySearchEngine> searchEngine) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
-        this.postMapper = postMapper;
+        this.postListingService = postListingService;
         this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.eventPublisher = eventPublisher;
+        this.searchEngine = searchEngine;
     }
 
     // Find user by username
@@ -40,6 +61,12 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
     }
 
+    // Resolve a username without loading the user (cheap enough to run before a conditional GET)
+    public Long findIdByUsername(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+    }
+
     // Find user by ID
     public User findById(Long userId) {
         return userRepository.findById(userId)
@@ -49,7 +76,7 @@ public class UserService {
     // Get user profile with paginated posts and follower information
     @Transactional(readOnly = true)
     public UserProfileDto getUserProfile(String username, int page, int size, Authentication authentication) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Pageable pageable = PageRequest.of(page, size);
 
         User user = findByUsername(username);
         User currentUser = getCurrentUserFromAuthentication(authentication);
@@ -57,32 +84,17 @@ public class UserService {
         // Check if current user is following this user
         boolean isSubscribed = this.isUserSubscribedToProfile(currentUser, user);
 
-        // Get paginated posts from user
-        Page<Post> postsPage = postRepository.findByUserId(user.getId(), pageable);
-
-        List<PostResponse> postDtos = postsPage.getContent().stream()
-                .map(post -> postMapper.toDto(post, currentUser))
-                .collect(Collectors.toList());
-
-        PostsResponseDto postsResponseDto = new PostsResponseDto(
-                postDtos,
-                postsPage.getNumber(),
-                postsPage.getSize(),
-                postsPage.getTotalElements(),
-                postsPage.getTotalPages(),
-                postsPage.isLast());
-
-        // Get follower and following counts
-        long followerCount = userRepository.countFollowers(user.getId());
-        long followingCount = userRepository.countFollowing(user.getId());
+        // Get paginated posts from user (ids first, then hydrate the page)
+        Page<Long> postIdsPage = postRepository.findPostIdsByUserId(user.getId(), pageable);
+        PostsResponseDto postsResponseDto = postListingService.toPage(postIdsPage, currentUser);
 
         return new UserProfileDto(
                 user.getId(),
                 user.getName(),
                 user.getUsername(),
                 postsResponseDto,
-                followerCount,
-                followingCount,
+                user.getFollowerCount(),
+                user.getFollowingCount(),
                 isSubscribed,
                 user.isEnabled(),
                 user.getReportedCount(),
@@ -110,6 +122,10 @@ public class UserService {
 
         // Create follow relationship
         userRepository.insertFollowRelationship(currentUser.getId(), userToFollow.getId());
+        userRepository.incrementFollowCounts(currentUser.getId(), userToFollow.getId(), 1);
+        timelineService.onFollow(currentUser.getId(), userToFollow);
+        eventPublisher.publishEvent(new UserChangedEvent(userToFollow.getId(), false));
+        eventPublisher.publishEvent(new UserChangedEvent(currentUser.getId(), false));
         
         // Notify followed user
         String message = currentUser.getUsername() + " started following you.";
@@ -145,6 +161,10 @@ public class UserService {
 
         // Delete follow relationship
         userRepository.deleteFollowRelationship(currentUser.getId(), userToUnfollow.getId());
+        userRepository.incrementFollowCounts(currentUser.getId(), userToUnfollow.getId(), -1);
+        timelineService.onUnfollow(currentUser.getId(), userToUnfollow.getId());
+        eventPublisher.publishEvent(new UserChangedEvent(userToUnfollow.getId(), false));
+        eventPublisher.publishEvent(new UserChangedEvent(currentUser.getId(), false));
 
         return "You've unfollowed " + userToUnfollow.getUsername() + " successfully!";
     }
@@ -221,14 +241,56 @@ public class UserService {
                 followingPage.isLast());
     }
 
+    // Search users by username or full name (BM25 ranked when the in-memory engine is loaded)
+    @Transactional(readOnly = true)
+    public UserSuggestionResponse searchUsers(String query, int page, int size, Authentication authentication) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty or contain only whitespace");
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must not be negative and size must be at least 1.");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+        User currentUser = getCurrentUserFromAuthentication(authentication);
+
+        List<User> users;
+        long total;
+        if (searchEngine.isPresent() && searchEngine.get().isReady()) {
+            long limit = ((long) page + 1) * size;
+            InvertedIndex.Hits hits = searchEngine.get().searchUsers(query, (int) Math.min(limit, Integer.MAX_VALUE));
+            List<Long> pageIds = hits.getHits().stream()
+                    .skip((long) page * size)
+                    .map(InvertedIndex.Hit::getId)
+                    .collect(Collectors.toList());
+            Map<Long, User> usersById = userRepository.findAllById(pageIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            users = pageIds.stream().map(usersById::get).filter(Objects::nonNull).collect(Collectors.toList());
+            total = hits.getMatchCount();
+        } else {
+            String pattern = "%" + query.trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            Page<User> userPage = userRepository.searchByUsernameOrName(pattern, PageRequest.of(page, size));
+            users = userPage.getContent();
+            total = userPage.getTotalElements();
+        }
+
+        Set<Long> followingIds = currentUser != null
+                ? new HashSet<>(userRepository.findFollowingIds(currentUser.getId()))
+                : Set.of();
+        List<UserSuggestionDto> results = users.stream()
+                .map(user -> toUserSuggestionDto(user, followingIds.contains(user.getId())))
+                .collect(Collectors.toList());
+        int totalPages = (int) ((total + size - 1) / size);
+        return new UserSuggestionResponse(results, page, size, total, totalPages, page + 1 >= totalPages);
+    }
+
     // Convert User entity to UserSuggestionDto
     private UserSuggestionDto toUserSuggestionDto(User user, boolean subscribed) {
-        long followerCount = userRepository.countFollowers(user.getId());
         return new UserSuggestionDto(
                 user.getId(),
                 user.getUsername(),
                 user.getName(),
-                followerCount,
+                user.getFollowerCount(),
                 subscribed);
     }
 
@@ -0,0 +1,180 @@
+package com.zerooneblog.api.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zerooneblog.api.domain.PostViewSketch;
+import com.zerooneblog.api.infrastructure.persistence.PostViewSketchRepository;
+import com.zerooneblog.api.infrastructure.security.CustomUserDetails;
+import com.zerooneblog.api.interfaces.dto.ViewCounterStatsDto;
+
+// Service counting post views without a write per request: views are buffered in striped in-memory
+// counters and flushed to the database in batches, and each post keeps a HyperLogLog sketch of its
+// distinct viewers. Buffered views are lost if the process dies between flushes.
+@Service
+public class ViewCounterService {
+    private static final Logger log = LoggerFactory.getLogger(ViewCounterService.class);
+
+    private static final String INCREMENT_VIEWS_SQL =
+            "UPDATE posts SET view_count = view_count + ? WHERE id = ?";
+    // Posts deleted since the view was buffered are skipped rather than failing the batch
+    private static final String UPSERT_SKETCH_SQL =
+            "INSERT INTO post_view_sketches (post_id, registers) SELECT ?, ? WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?) " +
+            "ON CONFLICT (post_id) DO UPDATE SET registers = EXCLUDED.registers";
+    private static final String SET_UNIQUE_VIEWERS_SQL =
+            "UPDATE posts SET unique_viewer_count = ? WHERE id = ?";
+
+    private final PostViewSketchRepository postViewSketchRepository;
+    private final TrendingService trendingService;
+    private final PostCache postCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Recording takes the shared side; a flush takes the exclusive side only to swap the buffer out
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private ConcurrentHashMap<Long, PendingViews> buffer = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushedViews = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    public ViewCounterService(PostViewSketchRepository postViewSketchRepository, TrendingService trendingService,
+            PostCache postCache, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.postViewSketchRepository = postViewSketchRepository;
+        this.trendingService = trendingService;
+        this.postCache = postCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Count one view; signed-in viewers are identified by user id, anonymous ones by client address
+    public void recordView(Long postId, Authentication authentication, String remoteAddress) {
+        String viewerKey = authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails
+                ? "u:" + userDetails.getUserId()
+                : "a:" + remoteAddress;
+        bufferLock.readLock().lock();
+        try {
+            PendingViews pending = buffer.computeIfAbsent(postId, id -> new PendingViews());
+            pending.views.increment();
+            pending.viewers.add(viewerKey);
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    // Write the buffered views in one transaction: batched count increments, merged sketches and
+    // the resulting unique-viewer estimates
+    @Scheduled(initialDelayString = "${app.views.flush-interval-ms:5000}",
+            fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        Map<Long, PendingViews> drained;
+        bufferLock.writeLock().lock();
+        try {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            drained = buffer;
+            buffer = new ConcurrentHashMap<>();
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+
+        List<Object[]> increments = new ArrayList<>(drained.size());
+        Map<Long, Long> uniqueViewers = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<Long, PendingViews> entry : drained.entrySet()) {
+            long views = entry.getValue().views.sum();
+            increments.add(new Object[] { views, entry.getKey() });
+            total += views;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INCREMENT_VIEWS_SQL, increments);
+
+                Map<Long, HyperLogLog> sketches = new HashMap<>();
+                for (PostViewSketch stored : postViewSketchRepository.findAllById(drained.keySet())) {
+                    sketches.put(stored.getPostId(), HyperLogLog.fromBytes(stored.getRegisters()));
+                }
+                List<Object[]> upserts = new ArrayList<>(drained.size());
+                List<Object[]> estimates = new ArrayList<>(drained.size());
+                for (Map.Entry<Long, PendingViews> entry : drained.entrySet()) {
+                    HyperLogLog sketch = sketches.computeIfAbsent(entry.getKey(), id -> new HyperLogLog());
+                    sketch.merge(entry.getValue().viewers);
+                    upserts.add(new Object[] { entry.getKey(), sketch.toBytes(), entry.getKey() });
+                    uniqueViewers.put(entry.getKey(), sketch.estimate());
+                    estimates.add(new Object[] { uniqueViewers.get(entry.getKey()), entry.getKey() });
+                }
+                jdbcTemplate.batchUpdate(UPSERT_SKETCH_SQL, upserts);
+                jdbcTemplate.batchUpdate(SET_UNIQUE_VIEWERS_SQL, estimates);
+            });
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            log.warn("View counter flush failed for {} posts, keeping them for the next attempt", drained.size(), e);
+            requeue(drained);
+            return;
+        }
+
+        flushedViews.addAndGet(total);
+        flushes.incrementAndGet();
+        lastFlushMillis = System.currentTimeMillis();
+        for (Object[] increment : increments) {
+            Long postId = (Long) increment[1];
+            trendingService.recordViews(postId, (Long) increment[0]);
+            // Cached renderings overlay the new counts rather than being reloaded
+            postCache.recordViews(postId, (Long) increment[0], uniqueViewers.get(postId));
+        }
+    }
+
+    public ViewCounterStatsDto getStats() {
+        int bufferedPosts;
+        long bufferedViews = 0;
+        bufferLock.readLock().lock();
+        try {
+            bufferedPosts = buffer.size();
+            for (PendingViews pending : buffer.values()) {
+                bufferedViews += pending.views.sum();
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+        return new ViewCounterStatsDto(bufferedPosts, bufferedViews, flushedViews.get(), flushes.get(),
+                failedFlushes.get(), lastFlushMillis);
+    }
+
+    // Put the views of a failed flush back so they are retried with the next one
+    private void requeue(Map<Long, PendingViews> drained) {
+        bufferLock.readLock().lock();
+        try {
+            for (Map.Entry<Long, PendingViews> entry : drained.entrySet()) {
+                PendingViews pending = buffer.computeIfAbsent(entry.getKey(), id -> new PendingViews());
+                pending.views.add(entry.getValue().views.sum());
+                pending.viewers.merge(entry.getValue().viewers);
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    private static final class PendingViews {
+        private final LongAdder views = new LongAdder();
+        private final HyperLogLog viewers = new HyperLogLog();
+    }
+}
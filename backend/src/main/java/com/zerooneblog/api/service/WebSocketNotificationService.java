@@ -2,43 +2,90 @@ package com.zerooneblog.api.service;
 
 import com.zerooneblog.api.interfaces.dto.NotificationCountDto;
 import com.zerooneblog.api.interfaces.dto.NotificationDto;
+import com.zerooneblog.api.interfaces.dto.WebSocketDispatchStatsDto;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-// Service for sending real-time notifications via WebSocket
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Service for sending real-time notifications via WebSocket. Notification and count updates are coalesced per
+// user over a short window: only the latest counts and the latest state of each notification are sent.
+// Users without an open session are skipped entirely.
 @Service
 public class WebSocketNotificationService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceRegistry presenceRegistry;
+
+    // Updates waiting for the next dispatch, per username; only mutated inside ConcurrentHashMap.compute
+    private final ConcurrentHashMap<String, PendingFrames> pending = new ConcurrentHashMap<>();
 
-    public WebSocketNotificationService(SimpMessagingTemplate messagingTemplate) {
+    private final AtomicLong notificationUpdates = new AtomicLong();
+    private final AtomicLong notificationFrames = new AtomicLong();
+    private final AtomicLong countUpdates = new AtomicLong();
+    private final AtomicLong countFrames = new AtomicLong();
+    private final AtomicLong skippedOffline = new AtomicLong();
+    // Queued frames dropped at dispatch because the user went offline (part of skippedOffline, not saved)
+    private final AtomicLong droppedPending = new AtomicLong();
+
+    public WebSocketNotificationService(SimpMessagingTemplate messagingTemplate, PresenceRegistry presenceRegistry) {
         this.messagingTemplate = messagingTemplate;
+        this.presenceRegistry = presenceRegistry;
+    }
+
+    /**
+     * Whether anything sent to this user would be delivered; callers skip building pushes (and computing
+     * counts) for offline users, who load their state when they connect
+     * @param username The user's username
+     */
+    public boolean isOnline(String username) {
+        return presenceRegistry.isOnline(username);
     }
 
     /**
-     * Send a new notification to a specific user
+     * Queue a new or updated notification for a specific user; a later update of the same
+     * notification within the window replaces this one
      * @param username The recipient's username
      * @param notification The notification to send
      */
     public void sendNotificationToUser(String username, NotificationDto notification) {
-        messagingTemplate.convertAndSendToUser(
-            username, 
-            "/queue/notifications", 
-            notification
-        );
+        if (!isOnline(username)) {
+            skippedOffline.incrementAndGet();
+            return;
+        }
+        notificationUpdates.incrementAndGet();
+        pending.compute(username, (user, frames) -> {
+            PendingFrames updated = frames != null ? frames : new PendingFrames();
+            // Re-inserting moves the notification to the end, so frames go out in order of their latest update
+            updated.notifications.remove(notification.getId());
+            updated.notifications.put(notification.getId(), notification);
+            return updated;
+        });
     }
 
     /**
-     * Send updated notification counts to a specific user
+     * Queue updated notification counts for a specific user; only the latest counts are sent
      * @param username The recipient's username
      * @param counts The updated counts
      */
     public void sendNotificationCountsToUser(String username, NotificationCountDto counts) {
-        messagingTemplate.convertAndSendToUser(
-            username, 
-            "/queue/notification-counts", 
-            counts
-        );
+        if (!isOnline(username)) {
+            skippedOffline.incrementAndGet();
+            return;
+        }
+        countUpdates.incrementAndGet();
+        pending.compute(username, (user, frames) -> {
+            PendingFrames updated = frames != null ? frames : new PendingFrames();
+            updated.counts = counts;
+            return updated;
+        });
     }
 
     /**
@@ -47,6 +94,7 @@ public class WebSocketNotificationService {
      * @param notificationId The notification ID that was read
      */
     public void notifyNotificationRead(String username, Long notificationId) {
+        discardPending(username, List.of(notificationId));
         messagingTemplate.convertAndSendToUser(
             username, 
             "/queue/notification-read", 
@@ -60,10 +108,73 @@ public class WebSocketNotificationService {
      * @param notificationIds The IDs of deleted notifications
      */
     public void notifyNotificationsDeleted(String username, java.util.List<Long> notificationIds) {
+        discardPending(username, notificationIds);
         messagingTemplate.convertAndSendToUser(
             username, 
             "/queue/notifications-deleted", 
             notificationIds
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Send everything queued since the last dispatch: each user's pending notifications in update
+     * order, then their latest counts
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.coalesce-window-ms:250}")
+    public void dispatch() {
+        for (String username : new ArrayList<>(pending.keySet())) {
+            PendingFrames frames = pending.remove(username);
+            if (frames == null) {
+                continue;
+            }
+            // Disconnected since the updates were queued
+            if (!isOnline(username)) {
+                int dropped = frames.notifications.size() + (frames.counts != null ? 1 : 0);
+                droppedPending.addAndGet(dropped);
+                skippedOffline.addAndGet(dropped);
+                continue;
+            }
+            for (NotificationDto notification : frames.notifications.values()) {
+                messagingTemplate.convertAndSendToUser(username, "/queue/notifications", notification);
+                notificationFrames.incrementAndGet();
+            }
+            if (frames.counts != null) {
+                messagingTemplate.convertAndSendToUser(username, "/queue/notification-counts", frames.counts);
+                countFrames.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Coalescing metrics: updates requested, frames actually sent, frames saved and pushes skipped for
+     * offline users
+     */
+    public WebSocketDispatchStatsDto getStats() {
+        long requested = notificationUpdates.get() + countUpdates.get();
+        long sent = notificationFrames.get() + countFrames.get();
+        return new WebSocketDispatchStatsDto(pending.size(), notificationUpdates.get(), notificationFrames.get(),
+                countUpdates.get(), countFrames.get(), requested - sent - droppedPending.get() - pendingFrameCount(),
+                skippedOffline.get());
+    }
+
+    // A read or deleted notification must not be re-sent afterwards in its old state
+    private void discardPending(String username, Collection<Long> notificationIds) {
+        pending.computeIfPresent(username, (user, frames) -> {
+            notificationIds.forEach(frames.notifications::remove);
+            return frames.notifications.isEmpty() && frames.counts == null ? null : frames;
+        });
+    }
+
+    private long pendingFrameCount() {
+        long frames = 0;
+        for (PendingFrames pendingFrames : pending.values()) {
+            frames += pendingFrames.notifications.size() + (pendingFrames.counts != null ? 1 : 0);
+        }
+        return frames;
+    }
+
+    private static final class PendingFrames {
+        private final Map<Long, NotificationDto> notifications = new LinkedHashMap<>();
+        private NotificationCountDto counts;
+    }
+}
@@ -0,0 +1,39 @@
+package com.zerooneblog.api.service.event;
+
+// Published whenever a post's content, visibility or engagement changes; contentChanged is set when the
+// post was created, edited, hidden, unhidden or deleted (as opposed to a like or comment count moving).
+// authorId accompanies content changes and actorId names the user whose own view of the post changed
+// (a liker's likedByCurrentUser); either may be null.
+public class PostChangedEvent {
+    private final Long postId;
+    private final boolean contentChanged;
+    private final Long authorId;
+    private final Long actorId;
+
+    public PostChangedEvent(Long postId) {
+        this(postId, false, null, null);
+    }
+
+    public PostChangedEvent(Long postId, boolean contentChanged, Long authorId, Long actorId) {
+        this.postId = postId;
+        this.contentChanged = contentChanged;
+        this.authorId = authorId;
+        this.actorId = actorId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public boolean isContentChanged() {
+        return contentChanged;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public Long getActorId() {
+        return actorId;
+    }
+}
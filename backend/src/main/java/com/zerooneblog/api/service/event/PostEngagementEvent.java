@@ -0,0 +1,33 @@
+package com.zerooneblog.api.service.event;
+
+import java.time.Instant;
+
+// Published when a like or comment is added to or removed from a post; occurredAt is when the engagement
+// originally happened, so a removal can cancel exactly the (time-decayed) weight its addition contributed
+public class PostEngagementEvent {
+    public enum Kind {
+        LIKE, UNLIKE, COMMENT, UNCOMMENT
+    }
+
+    private final Long postId;
+    private final Kind kind;
+    private final Instant occurredAt;
+
+    public PostEngagementEvent(Long postId, Kind kind, Instant occurredAt) {
+        this.postId = postId;
+        this.kind = kind;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.zerooneblog.api.service.event;
+
+import java.time.Instant;
+
+// Published when any new post is created (pulled authors included); drives the follower notification fan-out
+public class PostPublishedEvent {
+    private final Long postId;
+    private final Long authorId;
+    private final String authorUsername;
+    private final String title;
+    private final Instant publishedAt;
+
+    public PostPublishedEvent(Long postId, Long authorId, String authorUsername, String title, Instant publishedAt) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.authorUsername = authorUsername;
+        this.title = title;
+        this.publishedAt = publishedAt;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorUsername() {
+        return authorUsername;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+}
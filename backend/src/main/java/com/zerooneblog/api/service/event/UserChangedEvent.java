@@ -0,0 +1,21 @@
+package com.zerooneblog.api.service.event;
+
+// Published whenever a user's relationships or account change; deleted is set when the user and all their
+// content are gone
+public class UserChangedEvent {
+    private final Long userId;
+    private final boolean deleted;
+
+    public UserChangedEvent(Long userId, boolean deleted) {
+        this.userId = userId;
+        this.deleted = deleted;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -1,12 +1,18 @@
 package com.zerooneblog.api.service.mapper;
 
 import com.zerooneblog.api.domain.Post;
+import com.zerooneblog.api.domain.PostMedia;
 import com.zerooneblog.api.domain.User;
-import com.zerooneblog.api.infrastructure.persistence.PostLikeRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostMediaRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostSummary;
 import com.zerooneblog.api.interfaces.dto.PostMediaDto;
 import com.zerooneblog.api.interfaces.dto.PostResponse;
+import com.zerooneblog.api.service.LikeCounterBuffer;
+import com.zerooneblog.api.service.LikedPostsCache;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
@@ -14,29 +20,83 @@ import org.springframework.stereotype.Component;
 @Component
 public class PostMapper {
 
-    private final PostLikeRepository postLikeRepository;
+    private final LikedPostsCache likedPostsCache;
+    private final PostMediaRepository postMediaRepository;
     private final PostMediaMapper postMediaMapper;
+    private final LikeCounterBuffer likeCounterBuffer;
 
-    public PostMapper(PostLikeRepository postLikeRepository, PostMediaMapper postMediaMapper) {
-        this.postLikeRepository = postLikeRepository;
+    public PostMapper(LikedPostsCache likedPostsCache, PostMediaRepository postMediaRepository,
+            PostMediaMapper postMediaMapper, LikeCounterBuffer likeCounterBuffer) {
+        this.likedPostsCache = likedPostsCache;
+        this.postMediaRepository = postMediaRepository;
         this.postMediaMapper = postMediaMapper;
+        this.likeCounterBuffer = likeCounterBuffer;
     }
 
     public PostResponse toDto(Post post, User currentUser) {
+        boolean liked = currentUser != null && likedPostsCache.isLiked(currentUser.getId(), post.getId());
+        return toDto(post, liked, post.getMediaFoLES());
+    }
+
+    // Map a whole page of post summaries: liked flags from the user's cached bitmap, media in one query
+    public List<PostResponse> toDtoList(List<PostSummary> posts, User currentUser) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> postIds = posts.stream().map(PostSummary::getId).collect(Collectors.toList());
+
+        Set<Long> likedPostIds = currentUser != null
+                ? likedPostsCache.likedAmong(currentUser.getId(), postIds)
+                : Set.of();
+        Map<Long, List<PostMedia>> mediaByPost = postMediaRepository.findByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(media -> media.getPost().getId()));
+
+        return posts.stream()
+                .map(post -> toDto(post,
+                        likedPostIds.contains(post.getId()),
+                        mediaByPost.getOrDefault(post.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    // List views carry the precomputed excerpt only; full content is served by the single-post endpoint
+    private PostResponse toDto(PostSummary post, boolean likedByCurrentUser, List<PostMedia> media) {
+        PostResponse dto = new PostResponse();
+        dto.setId(post.getId());
+        dto.setTitle(post.getTitle());
+        dto.setExcerpt(post.getExcerpt());
+        dto.setAuthorId(post.getAuthorId());
+        dto.setAuthorUsername(post.getAuthorUsername());
+        dto.setCreatedAt(post.getCreatedAt());
+        // Stored count plus likes still buffered in write-behind mode
+        dto.setLikeCount(post.getLikeCount() + likeCounterBuffer.pendingDelta(post.getId()));
+        dto.setCommentCount(post.getCommentCount());
+        dto.setViewCount(post.getViewCount());
+        dto.setUniqueViewerCount(post.getUniqueViewerCount());
+        dto.setLikedByCurrentUser(likedByCurrentUser);
+        dto.setHidden(post.getHidden());
+        dto.setReportedCount(post.getReportedCount() != null ? post.getReportedCount() : 0L);
+        dto.setMediaFiles(media.stream().map(postMediaMapper::toDto).collect(Collectors.toList()));
+        return dto;
+    }
+
+    private PostResponse toDto(Post post, boolean likedByCurrentUser, List<PostMedia> media) {
         PostResponse dto = new PostResponse();
         dto.setId(post.getId());
         dto.setTitle(post.getTitle());
         dto.setContent(post.getContent());
+        dto.setExcerpt(post.getExcerpt());
         dto.setAuthorId(post.getAuthor().getId());
         dto.setAuthorUsername(post.getAuthor().getUsername());
         dto.setCreatedAt(post.getCreatedAt());
-        dto.setLikeCount(postLikeRepository.countByPostId(post.getId()));
-        dto.setLikedByCurrentUser(currentUser != null &&
-                postLikeRepository.existsByUserIdAndPostId(currentUser.getId(), post.getId())
-        );
+        // Stored count plus likes still buffered in write-behind mode
+        dto.setLikeCount(post.getLikeCount() + likeCounterBuffer.pendingDelta(post.getId()));
+        dto.setCommentCount(post.getCommentCount());
+        dto.setViewCount(post.getViewCount());
+        dto.setUniqueViewerCount(post.getUniqueViewerCount());
+        dto.setLikedByCurrentUser(likedByCurrentUser);
         dto.setHidden(post.isHidden());
         dto.setReportedCount(post.getReportedCount() != null ? post.getReportedCount() : 0L);
-        List<PostMediaDto> postMediaDto = post.getMediaFoLES().stream()
+        List<PostMediaDto> postMediaDto = media.stream()
         .map(mediafile -> 
             postMediaMapper.toDto(mediafile)
         ).collect(Collectors.toList());
@@ -44,4 +104,4 @@ public class PostMapper {
         
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,391 @@
+package com.zerooneblog.api.service.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.infrastructure.persistence.PostSearchHit;
+import com.zerooneblog.api.infrastructure.persistence.PostText;
+import com.zerooneblog.api.infrastructure.persistence.UserRepository;
+import com.zerooneblog.api.infrastructure.persistence.UserText;
+import com.zerooneblog.api.service.SearchCursor;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.UserChangedEvent;
+
+// In-process search engine (app.search.engine=memory): BM25 over post titles/content and user
+// usernames/names. The index is loaded from its snapshot file (or rebuilt) in the background after startup,
+// kept current from post and user change events, and written back periodically and on shutdown.
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+public class InMemorySearchEngine {
+    private static final Logger log = LoggerFactory.getLogger(InMemorySearchEngine.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x5a4f4253;
+    private static final int LOAD_BATCH_SIZE = 500;
+    // Title words count this many times towards a post's term frequencies and length
+    private static final int TITLE_WEIGHT = 2;
+    // Posts edited this long before the snapshot was taken are re-read on load, covering in-flight commits
+    private static final Duration SNAPSHOT_OVERLAP = Duration.ofMinutes(5);
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readTransaction;
+    private final long maxBytes;
+    private final Path snapshotPath;
+
+    private volatile InvertedIndex posts;
+    private volatile InvertedIndex users;
+    private volatile boolean ready;
+    private long snapshotModifications = -1;
+
+    // Changes seen while the index is still loading; replayed once it is ready
+    private final Set<Long> pendingPosts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+
+    public InMemorySearchEngine(PostRepository postRepository, UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.search.memory.max-bytes:268435456}") long maxBytes,
+            @Value("${app.search.memory.snapshot-path:./data/search-index.bin}") String snapshotPath) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.maxBytes = maxBytes;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.posts = new InvertedIndex(maxBytes);
+        this.users = new InvertedIndex(maxBytes);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Load in the background so a large index never delays startup; searches fall back until it is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread loader = new Thread(this::load, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Best posts for the query, strictly after the cursor when given
+    public List<PostSearchHit> searchPosts(String query, boolean includeHidden, SearchCursor after, int limit) {
+        List<String> terms = Tokenizer.tokenize(query);
+        InvertedIndex.Hits hits = posts.search(terms, includeHidden,
+                after != null ? after.getRank() : null, after != null ? after.getId() : null, limit);
+        if (hits.getHits().isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = hits.getHits().stream().map(InvertedIndex.Hit::getId).collect(Collectors.toList());
+        Map<Long, PostText> texts = readTransaction.execute(status -> postRepository.findPostTextsByIdIn(ids))
+                .stream().collect(Collectors.toMap(PostText::getId, Function.identity()));
+        Set<String> termSet = new HashSet<>(terms);
+
+        List<PostSearchHit> results = new ArrayList<>(ids.size());
+        for (InvertedIndex.Hit hit : hits.getHits()) {
+            PostText text = texts.get(hit.getId());
+            String snippet = text != null ? SnippetBuilder.build(text.getContent(), termSet) : "";
+            results.add(new ScoredPostHit(hit.getId(), hit.getScore(), snippet));
+        }
+        return results;
+    }
+
+    // Best users for the query; the match count covers all matching users, not only the returned ones
+    public InvertedIndex.Hits searchUsers(String query, int limit) {
+        return users.search(Tokenizer.tokenize(query), true, null, null, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!event.isContentChanged()) {
+            return;
+        }
+        if (!ready) {
+            pendingPosts.add(event.getPostId());
+            // The loader may have drained the pending set between the check and the add
+            if (ready) {
+                replayPending();
+            }
+            return;
+        }
+        reindexPosts(List.of(event.getPostId()));
+    }
+
+    // A deleted user takes their posts along, so also drop every post that no longer exists
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!ready) {
+            pendingUsers.add(event.getUserId());
+            if (ready) {
+                replayPending();
+            }
+            return;
+        }
+        reindexUsers(List.of(event.getUserId()));
+        if (event.isDeleted()) {
+            removeMissing(posts, readTransaction.execute(status -> postRepository.findAllIds()));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.search.memory.snapshot-interval-ms:600000}",
+            fixedDelayString = "${app.search.memory.snapshot-interval-ms:600000}")
+    public void scheduledSnapshot() {
+        writeSnapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeSnapshot();
+    }
+
+    private void load() {
+        try {
+            if (!loadSnapshot()) {
+                rebuild();
+            }
+            ready = true;
+            replayPending();
+            log.info("Search index ready: {} posts, {} users, {} terms, ~{} KB", posts.size(), users.size(),
+                    posts.termCount() + users.termCount(),
+                    (posts.estimatedBytes() + users.estimatedBytes()) / 1024);
+        } catch (RuntimeException e) {
+            log.error("Building the search index failed; search keeps using PostgreSQL", e);
+        }
+    }
+
+    private void rebuild() {
+        InvertedIndex newPosts = new InvertedIndex(maxBytes);
+        InvertedIndex newUsers = new InvertedIndex(maxBytes);
+
+        long lastId = 0;
+        List<PostText> postBatch;
+        do {
+            long afterId = lastId;
+            postBatch = readTransaction.execute(status ->
+                    postRepository.findPostTextsAfter(afterId, Limit.of(LOAD_BATCH_SIZE)));
+            for (PostText post : postBatch) {
+                indexPost(newPosts, post);
+                lastId = post.getId();
+            }
+        } while (postBatch.size() == LOAD_BATCH_SIZE);
+
+        lastId = 0;
+        List<UserText> userBatch;
+        do {
+            long afterId = lastId;
+            userBatch = readTransaction.execute(status ->
+                    userRepository.findUserTextsAfter(afterId, Limit.of(LOAD_BATCH_SIZE)));
+            for (UserText user : userBatch) {
+                indexUser(newUsers, user);
+                lastId = user.getId();
+            }
+        } while (userBatch.size() == LOAD_BATCH_SIZE);
+
+        posts = newPosts;
+        users = newUsers;
+    }
+
+    // Load the snapshot, then apply what changed since it was written: new rows, edited posts, deletions
+    private boolean loadSnapshot() {
+        if (!Files.isReadable(snapshotPath)) {
+            return false;
+        }
+        Instant takenAt;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring unrecognized search index snapshot {}", snapshotPath);
+                return false;
+            }
+            takenAt = Instant.ofEpochMilli(in.readLong());
+            posts = InvertedIndex.readFrom(in, maxBytes);
+            users = InvertedIndex.readFrom(in, maxBytes);
+        } catch (IOException e) {
+            log.warn("Could not read search index snapshot {}, rebuilding", snapshotPath, e);
+            posts = new InvertedIndex(maxBytes);
+            users = new InvertedIndex(maxBytes);
+            return false;
+        }
+
+        Set<Long> changedPosts = new LinkedHashSet<>(readTransaction.execute(status ->
+                postRepository.findIdsUpdatedSince(takenAt.minus(SNAPSHOT_OVERLAP))));
+        reindexPosts(changedPosts);
+        reindexUsers(readTransaction.execute(status ->
+                userRepository.findIdsCreatedSince(takenAt.minus(SNAPSHOT_OVERLAP))));
+        catchUpPosts(posts.maxDocumentId());
+        catchUpUsers(users.maxDocumentId());
+        removeMissing(posts, readTransaction.execute(status -> postRepository.findAllIds()));
+        removeMissing(users, readTransaction.execute(status -> userRepository.findAllIds()));
+        return true;
+    }
+
+    private void catchUpPosts(long afterId) {
+        List<PostText> batch;
+        long lastId = afterId;
+        do {
+            long from = lastId;
+            batch = readTransaction.execute(status ->
+                    postRepository.findPostTextsAfter(from, Limit.of(LOAD_BATCH_SIZE)));
+            for (PostText post : batch) {
+                indexPost(posts, post);
+                lastId = post.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+    }
+
+    private void catchUpUsers(long afterId) {
+        List<UserText> batch;
+        long lastId = afterId;
+        do {
+            long from = lastId;
+            batch = readTransaction.execute(status ->
+                    userRepository.findUserTextsAfter(from, Limit.of(LOAD_BATCH_SIZE)));
+            for (UserText user : batch) {
+                indexUser(users, user);
+                lastId = user.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+    }
+
+    private void replayPending() {
+        List<Long> postIds = new ArrayList<>(pendingPosts);
+        pendingPosts.removeAll(postIds);
+        reindexPosts(postIds);
+
+        List<Long> userIds = new ArrayList<>(pendingUsers);
+        pendingUsers.removeAll(userIds);
+        reindexUsers(userIds);
+        if (!userIds.isEmpty()) {
+            removeMissing(posts, readTransaction.execute(status -> postRepository.findAllIds()));
+        }
+    }
+
+    // Re-read the given posts; ids that no longer exist are removed
+    private void reindexPosts(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        List<PostText> texts = readTransaction.execute(status -> postRepository.findPostTextsByIdIn(postIds));
+        Set<Long> found = new HashSet<>();
+        for (PostText post : texts) {
+            indexPost(posts, post);
+            found.add(post.getId());
+        }
+        for (Long postId : postIds) {
+            if (!found.contains(postId)) {
+                posts.remove(postId);
+            }
+        }
+    }
+
+    private void reindexUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<UserText> texts = readTransaction.execute(status -> userRepository.findUserTextsByIdIn(userIds));
+        Set<Long> found = new HashSet<>();
+        for (UserText user : texts) {
+            indexUser(users, user);
+            found.add(user.getId());
+        }
+        for (Long userId : userIds) {
+            if (!found.contains(userId)) {
+                users.remove(userId);
+            }
+        }
+    }
+
+    private void removeMissing(InvertedIndex index, List<Long> existingIds) {
+        Set<Long> existing = new HashSet<>(existingIds);
+        for (Long id : index.documentIds()) {
+            if (!existing.contains(id)) {
+                index.remove(id);
+            }
+        }
+    }
+
+    private void indexPost(InvertedIndex index, PostText post) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = addTerms(termFreqs, post.getTitle(), TITLE_WEIGHT) + addTerms(termFreqs, post.getContent(), 1);
+        index.put(post.getId(), termFreqs, length, post.getHidden());
+    }
+
+    private void indexUser(InvertedIndex index, UserText user) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = addTerms(termFreqs, user.getUsername(), 1) + addTerms(termFreqs, user.getName(), 1);
+        index.put(user.getId(), termFreqs, length, false);
+    }
+
+    private int addTerms(Map<String, Integer> termFreqs, String text, int weight) {
+        List<String> terms = Tokenizer.tokenize(text);
+        for (String term : terms) {
+            termFreqs.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    // Write both indexes to a temporary file and move it over the previous snapshot
+    private synchronized void writeSnapshot() {
+        if (!ready) {
+            return;
+        }
+        long modifications = posts.getModifications() + users.getModifications();
+        if (modifications == snapshotModifications) {
+            return;
+        }
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "search-index", ".tmp");
+            long takenAt = System.currentTimeMillis();
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(takenAt);
+                posts.writeTo(out);
+                users.writeTo(out);
+            }
+            Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotModifications = modifications;
+        } catch (IOException e) {
+            log.warn("Could not write search index snapshot {}", snapshotPath, e);
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.zerooneblog.api.service.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index with BM25 scoring. Documents get dense internal numbers in insertion order and
+// every term keeps a primitive postings list (doc numbers + term frequencies). Removals only tombstone the
+// document; postings are rewritten by compaction once tombstones make up a quarter of the slots.
+public class InvertedIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Rough heap costs used to keep the index inside its memory budget
+    private static final long BYTES_PER_POSTING = 8;
+    private static final long BYTES_PER_TERM = 96;
+    private static final long BYTES_PER_DOC = 48;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long maxBytes;
+
+    private Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docNumbers = new HashMap<>();
+    private long[] docIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private BitSet deleted = new BitSet();
+    private BitSet hidden = new BitSet();
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+    private long postingCount;
+    private long termChars;
+    private long evictions;
+    private long modifications;
+
+    public InvertedIndex(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // Add or replace a document; termFreqs holds the (already weighted) frequency of each term
+    public void put(long id, Map<String, Integer> termFreqs, int length, boolean hiddenDoc) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            ensureCapacity(docCount + 1);
+            int docNumber = docCount++;
+            docIds[docNumber] = id;
+            docLengths[docNumber] = length;
+            hidden.set(docNumber, hiddenDoc);
+            docNumbers.put(id, docNumber);
+            totalLength += length;
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                Postings list = postings.get(entry.getKey());
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(entry.getKey(), list);
+                    termChars += entry.getKey().length();
+                }
+                list.add(docNumber, entry.getValue());
+                postingCount++;
+            }
+            modifications++;
+            maybeCompact();
+            enforceBudget();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeInternal(id);
+            if (removed) {
+                modifications++;
+                maybeCompact();
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Score every live document matching at least one query term and return the best ones, strictly after
+    // the (afterScore, afterId) position when given, ordered by score then id, both descending
+    public Hits search(List<String> queryTerms, boolean includeHidden, Float afterScore, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (docCount == 0 || limit < 1) {
+                return new Hits(List.of(), 0);
+            }
+            float[] scores = new float[docCount];
+            BitSet matched = new BitSet(docCount);
+            float averageLength = (float) totalLength / docCount;
+
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int docNumber = list.docs[i];
+                    if (deleted.get(docNumber) || (!includeHidden && hidden.get(docNumber))) {
+                        continue;
+                    }
+                    int tf = list.freqs[i];
+                    float norm = K1 * (1 - B + B * docLengths[docNumber] / averageLength);
+                    scores[docNumber] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                    matched.set(docNumber);
+                }
+            }
+
+            // Min-heap of the best `limit` hits seen so far
+            Comparator<Hit> order = Comparator.comparingDouble(Hit::getScore).thenComparingLong(Hit::getId);
+            PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, matched.cardinality()) + 1, order);
+            int matches = 0;
+            for (int docNumber = matched.nextSetBit(0); docNumber >= 0; docNumber = matched.nextSetBit(docNumber + 1)) {
+                matches++;
+                Hit hit = new Hit(docIds[docNumber], scores[docNumber]);
+                if (afterScore != null && (hit.score > afterScore
+                        || (hit.score == afterScore && hit.id >= afterId))) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (order.compare(hit, best.peek()) > 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(order.reversed());
+            return new Hits(hits, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> documentIds() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(docNumbers.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long maxDocumentId() {
+        lock.readLock().lock();
+        try {
+            long max = 0;
+            for (Long id : docNumbers.keySet()) {
+                max = Math.max(max, id);
+            }
+            return max;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimate();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getEvictions() {
+        lock.readLock().lock();
+        try {
+            return evictions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Incremented on every change; lets callers skip snapshots of an unchanged index
+    public long getModifications() {
+        lock.readLock().lock();
+        try {
+            return modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Write a compacted copy of the index (live documents only)
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (deletedCount > 0) {
+                compact();
+            }
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(docCount);
+            for (int docNumber = 0; docNumber < docCount; docNumber++) {
+                out.writeLong(docIds[docNumber]);
+                out.writeInt(docLengths[docNumber]);
+                out.writeBoolean(hidden.get(docNumber));
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                Postings list = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(list.size);
+                for (int i = 0; i < list.size; i++) {
+                    out.writeInt(list.docs[i]);
+                    out.writeInt(list.freqs[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static InvertedIndex readFrom(DataInputStream in, long maxBytes) throws IOException {
+        if (in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported search index snapshot version.");
+        }
+        InvertedIndex index = new InvertedIndex(maxBytes);
+        int docs = in.readInt();
+        index.ensureCapacity(docs);
+        for (int docNumber = 0; docNumber < docs; docNumber++) {
+            long id = in.readLong();
+            int length = in.readInt();
+            index.docIds[docNumber] = id;
+            index.docLengths[docNumber] = length;
+            index.hidden.set(docNumber, in.readBoolean());
+            index.docNumbers.put(id, docNumber);
+            index.totalLength += length;
+        }
+        index.docCount = docs;
+        int terms = in.readInt();
+        for (int t = 0; t < terms; t++) {
+            String term = in.readUTF();
+            int size = in.readInt();
+            Postings list = new Postings(size);
+            for (int i = 0; i < size; i++) {
+                int docNumber = in.readInt();
+                if (docNumber < 0 || docNumber >= docs) {
+                    throw new IOException("Corrupt search index snapshot.");
+                }
+                list.add(docNumber, in.readInt());
+            }
+            index.postings.put(term, list);
+            index.termChars += term.length();
+            index.postingCount += size;
+        }
+        return index;
+    }
+
+    private boolean removeInternal(long id) {
+        Integer docNumber = docNumbers.remove(id);
+        if (docNumber == null) {
+            return false;
+        }
+        deleted.set(docNumber);
+        deletedCount++;
+        return true;
+    }
+
+    private void maybeCompact() {
+        if (deletedCount >= MIN_TOMBSTONES_TO_COMPACT && deletedCount * 4L >= docCount) {
+            compact();
+        }
+    }
+
+    // Evict the oldest documents (lowest internal numbers) in batches until the index fits its budget
+    private void enforceBudget() {
+        while (estimate() > maxBytes && !docNumbers.isEmpty()) {
+            int toEvict = Math.max(1, docNumbers.size() / 10);
+            for (int docNumber = deleted.nextClearBit(0); toEvict > 0 && docNumber < docCount;
+                    docNumber = deleted.nextClearBit(docNumber + 1)) {
+                removeInternal(docIds[docNumber]);
+                evictions++;
+                toEvict--;
+            }
+            compact();
+        }
+    }
+
+    // Drop tombstoned documents, renumbering live ones in their original order
+    private void compact() {
+        int[] remap = new int[docCount];
+        int live = 0;
+        long[] newIds = new long[Math.max(1024, docNumbers.size())];
+        int[] newLengths = new int[newIds.length];
+        BitSet newHidden = new BitSet();
+        long newTotalLength = 0;
+        for (int docNumber = 0; docNumber < docCount; docNumber++) {
+            if (deleted.get(docNumber)) {
+                remap[docNumber] = -1;
+                continue;
+            }
+            remap[docNumber] = live;
+            newIds[live] = docIds[docNumber];
+            newLengths[live] = docLengths[docNumber];
+            newHidden.set(live, hidden.get(docNumber));
+            newTotalLength += docLengths[docNumber];
+            docNumbers.put(docIds[docNumber], live);
+            live++;
+        }
+
+        Map<String, Postings> newPostings = new HashMap<>();
+        long newPostingCount = 0;
+        long newTermChars = 0;
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            Postings list = entry.getValue();
+            Postings kept = new Postings();
+            for (int i = 0; i < list.size; i++) {
+                int mapped = remap[list.docs[i]];
+                if (mapped >= 0) {
+                    kept.add(mapped, list.freqs[i]);
+                }
+            }
+            if (kept.size > 0) {
+                kept.trim();
+                newPostings.put(entry.getKey(), kept);
+                newPostingCount += kept.size;
+                newTermChars += entry.getKey().length();
+            }
+        }
+
+        postings = newPostings;
+        docIds = newIds;
+        docLengths = newLengths;
+        hidden = newHidden;
+        deleted = new BitSet();
+        docCount = live;
+        deletedCount = 0;
+        totalLength = newTotalLength;
+        postingCount = newPostingCount;
+        termChars = newTermChars;
+    }
+
+    private long estimate() {
+        return postingCount * BYTES_PER_POSTING + postings.size() * BYTES_PER_TERM + termChars * 2
+                + (long) docCount * BYTES_PER_DOC;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > docIds.length) {
+            int newLength = Math.max(capacity, docIds.length * 2);
+            docIds = Arrays.copyOf(docIds, newLength);
+            docLengths = Arrays.copyOf(docLengths, newLength);
+        }
+    }
+
+    // Growable parallel arrays of doc numbers (ascending) and term frequencies
+    private static class Postings {
+        private int[] docs;
+        private int[] freqs;
+        private int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            docs = new int[Math.max(1, capacity)];
+            freqs = new int[docs.length];
+        }
+
+        void add(int docNumber, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = docNumber;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void trim() {
+            if (size < docs.length) {
+                docs = Arrays.copyOf(docs, size);
+                freqs = Arrays.copyOf(freqs, size);
+            }
+        }
+    }
+
+    public static class Hit {
+        private final long id;
+        private final float score;
+
+        public Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    public static class Hits {
+        private final List<Hit> hits;
+        private final int matchCount;
+
+        public Hits(List<Hit> hits, int matchCount) {
+            this.hits = hits;
+            this.matchCount = matchCount;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        public int getMatchCount() {
+            return matchCount;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.zerooneblog.api.service.search;
+
+import com.zerooneblog.api.infrastructure.persistence.PostSearchHit;
+
+// Search hit produced by the in-memory engine, shaped like the rows of the PostgreSQL search query
+public class ScoredPostHit implements PostSearchHit {
+    private final Long id;
+    private final Float rank;
+    private final String snippet;
+
+    public ScoredPostHit(Long id, Float rank, String snippet) {
+        this.id = id;
+        this.rank = rank;
+        this.snippet = snippet;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public Float getRank() {
+        return rank;
+    }
+
+    @Override
+    public String getSnippet() {
+        return snippet;
+    }
+}
@@ -0,0 +1,70 @@
+package com.zerooneblog.api.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Builds a short HTML-escaped fragment around the first query term found in a text, with every matching
+// word wrapped in <mark></mark> (the same shape the PostgreSQL search returns from ts_headline)
+public final class SnippetBuilder {
+    private static final int WORDS_BEFORE = 8;
+    private static final int MAX_WORDS = 25;
+
+    private SnippetBuilder() {
+    }
+
+    public static String build(String text, Set<String> queryTerms) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        // Word boundaries as [start, end) pairs
+        List<int[]> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(new int[] { start, i });
+                start = -1;
+            }
+        }
+        if (words.isEmpty()) {
+            return escape(text.substring(0, Math.min(text.length(), 200)));
+        }
+
+        int firstMatch = 0;
+        for (int w = 0; w < words.size(); w++) {
+            if (matches(text, words.get(w), queryTerms)) {
+                firstMatch = w;
+                break;
+            }
+        }
+        int from = Math.max(0, firstMatch - WORDS_BEFORE);
+        int to = Math.min(words.size(), from + MAX_WORDS);
+
+        StringBuilder snippet = new StringBuilder();
+        int cursor = words.get(from)[0];
+        for (int w = from; w < to; w++) {
+            int[] word = words.get(w);
+            snippet.append(escape(text.substring(cursor, word[0])));
+            String original = escape(text.substring(word[0], word[1]));
+            if (matches(text, word, queryTerms)) {
+                snippet.append("<mark>").append(original).append("</mark>");
+            } else {
+                snippet.append(original);
+            }
+            cursor = word[1];
+        }
+        return snippet.toString();
+    }
+
+    private static boolean matches(String text, int[] word, Set<String> queryTerms) {
+        return queryTerms.contains(text.substring(word[0], word[1]).toLowerCase(Locale.ROOT));
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,114 @@
+package com.zerooneblog.api;
+
+import com.zerooneblog.api.domain.Notification;
+import com.zerooneblog.api.domain.Role;
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.NotificationRepository;
+import com.zerooneblog.api.infrastructure.persistence.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Notification insert benchmark: N rows written one statement per row (what IDENTITY ids forced) versus
+// with pooled sequence ids and JDBC batching; batching has to win on the best of the rounds.
+// Runs against its own database (BENCHMARK_DATASOURCE_URL, created empty beforehand), never the application's:
+// mvn test -Dtest=NotificationInsertBenchmarkTests -Dbenchmark=true
+@SpringBootTest(properties =
+		"spring.datasource.url=${BENCHMARK_DATASOURCE_URL:jdbc:postgresql://localhost:5432/zerooneblog_benchmark}")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotificationInsertBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationInsertBenchmarkTests.class);
+
+	private static final int ROWS = 10_000;
+	private static final int ROUNDS = 3;
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void fanOutInserts() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		User sender = userRepository.save(benchmarkUser());
+		long bestUnbatched = Long.MAX_VALUE;
+		long bestBatched = Long.MAX_VALUE;
+		try {
+			for (int round = 1; round <= ROUNDS; round++) {
+				long unbatched = timeSaveAll(transactionTemplate, sender, 1);
+				long batched = timeSaveAll(transactionTemplate, sender, null);
+				bestUnbatched = Math.min(bestUnbatched, unbatched);
+				bestBatched = Math.min(bestBatched, batched);
+				log.info("round {}: {} rows unbatched {} ms, batched {} ms ({}x)", round, ROWS, unbatched, batched,
+						String.format("%.1f", (double) unbatched / Math.max(batched, 1)));
+			}
+		} finally {
+			// Notifications go with the user (ON DELETE CASCADE)
+			userRepository.deleteById(sender.getId());
+		}
+		assertThat(bestBatched).isLessThan(bestUnbatched);
+	}
+
+	// Persist ROWS notifications in one transaction; a null batch size keeps the configured one
+	private long timeSaveAll(TransactionTemplate transactionTemplate, User sender, Integer batchSize) {
+		long start = System.nanoTime();
+		transactionTemplate.executeWithoutResult(status -> {
+			if (batchSize != null) {
+				entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+			}
+			User user = entityManager.getReference(User.class, sender.getId());
+			List<Notification> notifications = new ArrayList<>(ROWS);
+			for (int i = 0; i < ROWS; i++) {
+				Notification notification = new Notification();
+				notification.setRecipient(user);
+				notification.setSender(user);
+				notification.setType(Notification.NotificationType.NEW_POST);
+				notification.setMessage("Benchmark notification " + i);
+				notification.setLatestActors(user.getUsername());
+				notifications.add(notification);
+			}
+			notificationRepository.saveAll(notifications);
+			entityManager.flush();
+			entityManager.clear();
+		});
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	private static User benchmarkUser() {
+		String name = "bench" + System.nanoTime();
+		User user = new User();
+		user.setUsername(name);
+		user.setEmail(name + "@example.com");
+		user.setName("Insert Benchmark");
+		user.setPassword("not-a-password-hash");
+		user.setRoles(new HashSet<>(Set.of(Role.USER)));
+		user.setEnabled(true);
+		user.setReportedCount(0L);
+		user.setReportingCount(0L);
+		user.setCreatedAt(Instant.now());
+		return user;
+	}
+}
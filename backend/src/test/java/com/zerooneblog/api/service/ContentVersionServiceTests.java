@@ -0,0 +1,91 @@
+package com.zerooneblog.api.service;
+
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.security.CustomUserDetails;
+import com.zerooneblog.api.service.event.PostChangedEvent;
+import com.zerooneblog.api.service.event.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// List tags move only with the visible set of posts and the viewer's own actions; profile tags per author
+class ContentVersionServiceTests {
+
+	private final ContentVersionService versions = new ContentVersionService(100, 100);
+	private final Authentication alice = viewer(1L);
+	private final Authentication bob = viewer(2L);
+
+	@Test
+	void engagementLeavesOtherViewersListsAlone() {
+		String aliceList = versions.listETag(alice);
+		String bobList = versions.listETag(bob);
+		String anonList = versions.listETag(null);
+		String post = versions.postETag(10L, alice);
+
+		// bob likes post 10, a comment lands on it and the like buffer flushes its count
+		versions.onPostChanged(new PostChangedEvent(10L, false, null, 2L));
+		versions.onPostChanged(new PostChangedEvent(10L));
+		versions.onPostChanged(new PostChangedEvent(10L));
+
+		assertThat(versions.listETag(alice)).isEqualTo(aliceList);
+		assertThat(versions.listETag(null)).isEqualTo(anonList);
+		assertThat(versions.listETag(bob)).isNotEqualTo(bobList);
+		assertThat(versions.postETag(10L, alice)).isNotEqualTo(post);
+	}
+
+	@Test
+	void contentChangesMoveListsAndOnlyTheirAuthorsProfile() {
+		String list = versions.listETag(alice);
+		String authorProfile = versions.profileETag(5L, alice);
+		String otherProfile = versions.profileETag(6L, alice);
+
+		versions.onPostChanged(new PostChangedEvent(10L, true, 5L, null));
+
+		assertThat(versions.listETag(alice)).isNotEqualTo(list);
+		assertThat(versions.profileETag(5L, alice)).isNotEqualTo(authorProfile);
+		assertThat(versions.profileETag(6L, alice)).isEqualTo(otherProfile);
+	}
+
+	@Test
+	void followMovesBothProfilesAndTheFollowersLists() {
+		String aliceList = versions.listETag(alice);
+		String bobList = versions.listETag(bob);
+		String followedProfile = versions.profileETag(5L, bob);
+		String otherProfile = versions.profileETag(6L, bob);
+
+		// alice follows user 5
+		versions.onUserChanged(new UserChangedEvent(5L, false));
+		versions.onUserChanged(new UserChangedEvent(1L, false));
+
+		assertThat(versions.listETag(alice)).isNotEqualTo(aliceList);
+		assertThat(versions.listETag(bob)).isEqualTo(bobList);
+		assertThat(versions.profileETag(5L, bob)).isNotEqualTo(followedProfile);
+		assertThat(versions.profileETag(6L, bob)).isEqualTo(otherProfile);
+	}
+
+	@Test
+	void deletedUserMovesEveryTag() {
+		List<String> before = List.of(versions.listETag(bob), versions.profileETag(6L, bob),
+				versions.postETag(10L, bob), versions.commentsETag(10L));
+
+		versions.onUserChanged(new UserChangedEvent(5L, true));
+
+		List<String> after = List.of(versions.listETag(bob), versions.profileETag(6L, bob),
+				versions.postETag(10L, bob), versions.commentsETag(10L));
+		for (int i = 0; i < before.size(); i++) {
+			assertThat(after.get(i)).isNotEqualTo(before.get(i));
+		}
+	}
+
+	private static Authentication viewer(Long id) {
+		User user = new User();
+		user.setId(id);
+		user.setUsername("user" + id);
+		CustomUserDetails details = new CustomUserDetails(user);
+		return new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+	}
+}
@@ -0,0 +1,74 @@
+package com.zerooneblog.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Estimates stay within a few standard errors (~1.6%) and merging equals sketching the union
+class HyperLogLogTests {
+
+	@Test
+	void estimatesStayWithinErrorBounds() {
+		for (int cardinality : new int[] { 10, 1_000, 10_000, 100_000, 1_000_000 }) {
+			HyperLogLog sketch = new HyperLogLog();
+			for (int i = 0; i < cardinality; i++) {
+				sketch.add("viewer-" + i);
+			}
+			// Small sets are counted almost exactly by linear counting; large ones get 4 standard errors
+			double tolerance = cardinality <= 1_000 ? 0.02 : 0.065;
+			assertThat((double) sketch.estimate()).as("cardinality %d", cardinality)
+					.isBetween(cardinality * (1 - tolerance), cardinality * (1 + tolerance));
+		}
+	}
+
+	@Test
+	void duplicatesDoNotInflateTheEstimate() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < 500; i++) {
+				sketch.add("viewer-" + i);
+			}
+		}
+
+		assertThat(sketch.estimate()).isBetween(490L, 510L);
+		assertThat(new HyperLogLog().estimate()).isZero();
+	}
+
+	@Test
+	void mergeEqualsSketchOfUnion() {
+		HyperLogLog left = new HyperLogLog();
+		HyperLogLog right = new HyperLogLog();
+		HyperLogLog union = new HyperLogLog();
+		// Half of the viewers are seen by both sketches
+		for (int i = 0; i < 60_000; i++) {
+			String viewer = "viewer-" + i;
+			if (i < 40_000) {
+				left.add(viewer);
+			}
+			if (i >= 20_000) {
+				right.add(viewer);
+			}
+			union.add(viewer);
+		}
+
+		left.merge(right);
+
+		assertThat(left.toBytes()).isEqualTo(union.toBytes());
+		assertThat((double) left.estimate()).isBetween(60_000 * 0.935, 60_000 * 1.065);
+	}
+
+	@Test
+	void serializedRegistersRoundTrip() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 5_000; i++) {
+			sketch.add("viewer-" + i);
+		}
+
+		HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+		assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+		// A blob of the wrong size starts an empty sketch instead of failing
+		assertThat(HyperLogLog.fromBytes(new byte[16]).estimate()).isZero();
+		assertThat(HyperLogLog.fromBytes(null).estimate()).isZero();
+	}
+}
@@ -0,0 +1,164 @@
+package com.zerooneblog.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Journal replay on startup: what a committed flush covered is skipped, everything else is applied once
+class LikeCounterBufferJournalTests {
+
+	private static final String INCREMENT = "UPDATE posts SET like_count";
+	private static final String RECORD_FLUSH = "INSERT INTO like_journal_flushes";
+
+	@TempDir
+	Path journalDir;
+
+	@Test
+	void replayAfterPartialFlushSkipsFlushedSegment() throws IOException {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		List<String> recordedFlushes = new ArrayList<>();
+		Map<Path, byte[]> survivingFiles = new HashMap<>();
+		// The flush commits, then the process dies before the segment file is deleted
+		when(jdbcTemplate.batchUpdate(startsWith(RECORD_FLUSH), anyList())).thenAnswer(invocation -> {
+			List<Object[]> rows = invocation.getArgument(1);
+			for (Object[] row : rows) {
+				recordedFlushes.add((String) row[0]);
+				Path segment = journalDir.resolve((String) row[0]);
+				survivingFiles.put(segment, Files.readAllBytes(segment));
+			}
+			return new int[rows.size()];
+		});
+		LikeCounterBuffer buffer = buffer(jdbcTemplate);
+		buffer.record(1L, 1);
+		buffer.record(1L, 1);
+		buffer.record(2L, 1);
+		buffer.flush();
+		for (Map.Entry<Path, byte[]> file : survivingFiles.entrySet()) {
+			Files.write(file.getKey(), file.getValue());
+		}
+		// Acknowledged after the flush, never flushed
+		buffer.record(2L, -1);
+		buffer.record(3L, 1);
+		assertThat(recordedFlushes).hasSize(1);
+		assertThat(segments()).hasSize(2);
+
+		JdbcTemplate restartedJdbc = mock(JdbcTemplate.class);
+		when(restartedJdbc.queryForList(anyString(), eq(String.class))).thenReturn(recordedFlushes);
+		LikeCounterBuffer restarted = buffer(restartedJdbc);
+		restarted.recover();
+
+		assertThat(increments(restartedJdbc)).containsOnly(Map.entry(2L, -1L), Map.entry(3L, 1L));
+		assertThat(segments()).isEmpty();
+	}
+
+	@Test
+	void failedFlushIsReplayedOnRestart() throws IOException {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.batchUpdate(startsWith(INCREMENT), anyList()))
+				.thenThrow(new DataAccessResourceFailureException("database down"));
+		LikeCounterBuffer buffer = buffer(jdbcTemplate);
+		buffer.record(1L, 1);
+		buffer.record(1L, 1);
+		buffer.flush();
+		// Nothing committed, so nothing recorded and the deltas wait for the next flush
+		verify(jdbcTemplate, never()).batchUpdate(startsWith(RECORD_FLUSH), anyList());
+		assertThat(buffer.pendingDelta(1L)).isEqualTo(2);
+		assertThat(segments()).hasSize(1);
+
+		JdbcTemplate restartedJdbc = mock(JdbcTemplate.class);
+		LikeCounterBuffer restarted = buffer(restartedJdbc);
+		restarted.recover();
+
+		assertThat(increments(restartedJdbc)).containsOnly(Map.entry(1L, 2L));
+		assertThat(segments()).isEmpty();
+	}
+
+	@Test
+	void concurrentFlushWaitsAndRecordsOnlyWhatItWrites() throws Exception {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		CountDownLatch firstWriteStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+		List<Map<Long, Long>> written = new ArrayList<>();
+		List<List<String>> recorded = new ArrayList<>();
+		when(jdbcTemplate.batchUpdate(startsWith(INCREMENT), anyList())).thenAnswer(invocation -> {
+			if (written.isEmpty() && firstWriteStarted.getCount() == 1) {
+				firstWriteStarted.countDown();
+				releaseFirstWrite.await();
+				throw new DataAccessResourceFailureException("database down");
+			}
+			Map<Long, Long> deltas = new HashMap<>();
+			for (Object[] row : invocation.<List<Object[]>>getArgument(1)) {
+				deltas.merge((Long) row[1], (Long) row[0], Long::sum);
+			}
+			written.add(deltas);
+			return new int[deltas.size()];
+		});
+		when(jdbcTemplate.batchUpdate(startsWith(RECORD_FLUSH), anyList())).thenAnswer(invocation -> {
+			List<String> segments = new ArrayList<>();
+			for (Object[] row : invocation.<List<Object[]>>getArgument(1)) {
+				segments.add((String) row[0]);
+			}
+			recorded.add(segments);
+			return new int[segments.size()];
+		});
+		LikeCounterBuffer buffer = buffer(jdbcTemplate);
+		buffer.record(1L, 1);
+		Thread first = Thread.ofVirtual().start(buffer::flush);
+		firstWriteStarted.await();
+
+		// A second flush (e.g. from reconciliation) while the first one's write is still open
+		buffer.record(2L, 1);
+		Thread second = Thread.ofVirtual().start(buffer::flush);
+		second.join(200);
+		assertThat(recorded).isEmpty();
+
+		// The first write fails; its deltas go back and the second flush writes and records both segments
+		releaseFirstWrite.countDown();
+		first.join();
+		second.join();
+		assertThat(written).containsExactly(Map.of(1L, 1L, 2L, 1L));
+		assertThat(recorded).hasSize(1);
+		assertThat(recorded.get(0)).hasSize(2);
+		assertThat(segments()).isEmpty();
+	}
+
+	private LikeCounterBuffer buffer(JdbcTemplate jdbcTemplate) {
+		return new LikeCounterBuffer(true, journalDir.toString(), jdbcTemplate,
+				mock(PlatformTransactionManager.class), mock(ApplicationEventPublisher.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Long, Long> increments(JdbcTemplate jdbcTemplate) {
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(startsWith(INCREMENT), rows.capture());
+		Map<Long, Long> deltas = new HashMap<>();
+		for (Object[] row : rows.getValue()) {
+			deltas.merge((Long) row[1], (Long) row[0], Long::sum);
+		}
+		return deltas;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(journalDir)) {
+			return files.toList();
+		}
+	}
+}
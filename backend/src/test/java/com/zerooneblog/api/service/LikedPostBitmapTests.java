@@ -0,0 +1,110 @@
+package com.zerooneblog.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Chunk boundaries at multiples of 65536 and the array <-> bitmap container switches around 4096 ids
+class LikedPostBitmapTests {
+
+	private static final long CHUNK = 1L << 16;
+
+	@Test
+	void idsOnBothSidesOfChunkBoundariesStayApart() {
+		LikedPostBitmap bitmap = LikedPostBitmap.of(List.of(CHUNK - 1, CHUNK, 2 * CHUNK, 0L, 5L * Integer.MAX_VALUE));
+
+		assertThat(bitmap.contains(0)).isTrue();
+		assertThat(bitmap.contains(CHUNK - 1)).isTrue();
+		assertThat(bitmap.contains(CHUNK)).isTrue();
+		assertThat(bitmap.contains(2 * CHUNK)).isTrue();
+		assertThat(bitmap.contains(5L * Integer.MAX_VALUE)).isTrue();
+		// Same low 16 bits as a member, different chunk
+		assertThat(bitmap.contains(3 * CHUNK)).isFalse();
+		assertThat(bitmap.contains(CHUNK + CHUNK - 1)).isFalse();
+		assertThat(bitmap.contains(1)).isFalse();
+
+		// Emptying a chunk drops it without disturbing its neighbours
+		bitmap.remove(CHUNK);
+		assertThat(bitmap.contains(CHUNK)).isFalse();
+		assertThat(bitmap.contains(CHUNK - 1)).isTrue();
+		assertThat(bitmap.contains(2 * CHUNK)).isTrue();
+		bitmap.add(CHUNK);
+		assertThat(bitmap.contains(CHUNK)).isTrue();
+	}
+
+	@Test
+	void arrayContainerTurnsIntoBitmapPastThreshold() {
+		LikedPostBitmap bitmap = new LikedPostBitmap();
+		for (long id = 0; id < 4096; id++) {
+			bitmap.add(CHUNK + id * 2);
+		}
+		// Re-adding a member of a full array changes nothing
+		bitmap.add(CHUNK);
+		assertThat(bitmap.contains(CHUNK + 1)).isFalse();
+
+		bitmap.add(CHUNK + 1);
+		bitmap.add(CHUNK + 8191);
+
+		for (long id = 0; id < 8192; id++) {
+			assertThat(bitmap.contains(CHUNK + id)).as("id %d", id).isEqualTo(id % 2 == 0 || id == 1 || id == 8191);
+		}
+		assertThat(bitmap.contains(CHUNK + 8192)).isFalse();
+		assertThat(bitmap.contains(2 * CHUNK + 1)).isFalse();
+	}
+
+	@Test
+	void bitmapShrinksBackOnlyAtHalfThreshold() {
+		LikedPostBitmap bitmap = new LikedPostBitmap();
+		for (long id = 0; id <= 4096; id++) {
+			bitmap.add(id);
+		}
+		long bitmapBytes = bitmap.sizeInBytes();
+
+		// Still 2049 ids: stays a bitmap
+		for (long id = 4096; id > 2048; id--) {
+			bitmap.remove(id);
+		}
+		assertThat(bitmap.sizeInBytes()).isEqualTo(bitmapBytes);
+
+		bitmap.remove(2048);
+
+		assertThat(bitmap.sizeInBytes()).isLessThan(bitmapBytes);
+		for (long id = 0; id <= 4096; id++) {
+			assertThat(bitmap.contains(id)).isEqualTo(id < 2048);
+		}
+		// The shrunk array keeps accepting ids in order
+		bitmap.add(3000);
+		bitmap.add(1);
+		assertThat(bitmap.contains(3000)).isTrue();
+		assertThat(bitmap.contains(2048)).isFalse();
+	}
+
+	@Test
+	void randomOperationsMatchTreeSet() {
+		Random random = new Random(42);
+		LikedPostBitmap bitmap = new LikedPostBitmap();
+		TreeSet<Long> expected = new TreeSet<>();
+		for (int i = 0; i < 50_000; i++) {
+			// Dense enough in the first chunks to cross the container thresholds both ways
+			long id = random.nextInt(3) == 0 ? random.nextInt(1 << 22) : random.nextInt(3 * 8192);
+			if (random.nextInt(3) == 0) {
+				bitmap.remove(id);
+				expected.remove(id);
+			} else {
+				bitmap.add(id);
+				expected.add(id);
+			}
+		}
+
+		for (long id = 0; id < 3 * 8192 + 100; id++) {
+			assertThat(bitmap.contains(id)).as("id %d", id).isEqualTo(expected.contains(id));
+		}
+		for (Long id : expected) {
+			assertThat(bitmap.contains(id)).isTrue();
+		}
+	}
+}
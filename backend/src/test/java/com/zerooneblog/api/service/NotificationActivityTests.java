@@ -0,0 +1,179 @@
+package com.zerooneblog.api.service;
+
+import com.zerooneblog.api.domain.Notification;
+import com.zerooneblog.api.domain.Post;
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Likes and comments are buffered per (recipient, post, type) and written by the flush alone; aggregate counts
+// come from the distinct likers or commenters since the aggregate's first activity
+class NotificationActivityTests {
+
+	private NotificationRepository notificationRepository;
+	private UserRepository userRepository;
+	private PostLikeRepository postLikeRepository;
+	private NotificationService notificationService;
+	private User author;
+	private Post post;
+
+	@BeforeEach
+	void setUp() {
+		notificationRepository = mock(NotificationRepository.class);
+		userRepository = mock(UserRepository.class);
+		PostRepository postRepository = mock(PostRepository.class);
+		postLikeRepository = mock(PostLikeRepository.class);
+		notificationService = new NotificationService(notificationRepository, userRepository, postRepository,
+				postLikeRepository, mock(CommentRepository.class), mock(UserNotificationStateRepository.class),
+				mock(NotificationTombstoneRepository.class), mock(WebSocketNotificationService.class),
+				mock(PlatformTransactionManager.class), 60, 5000, 168, 5000);
+		author = user(1L, "author");
+		post = new Post();
+		post.setId(42L);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+		when(userRepository.getReferenceById(anyLong()))
+				.thenAnswer(invocation -> user(invocation.getArgument(0), "user" + invocation.getArgument(0)));
+		when(postRepository.getReferenceById(42L)).thenReturn(post);
+		when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
+			Notification notification = invocation.getArgument(0);
+			notification.setId(100L);
+			return notification;
+		});
+	}
+
+	@Test
+	void concurrentFirstLikersOpenOneAggregate() throws InterruptedException {
+		when(notificationRepository.findOpenAggregate(eq(1L), eq(42L), eq(Notification.NotificationType.NEW_LIKE),
+				any(), any())).thenReturn(List.of());
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> likers = new ArrayList<>();
+		for (long id = 2; id <= 9; id++) {
+			User liker = user(id, "liker" + id);
+			likers.add(Thread.ofVirtual().start(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				notificationService.notifyPostActivity(author, liker, Notification.NotificationType.NEW_LIKE,
+						"liked your post: \"Title\"", post, Instant.now());
+			}));
+		}
+		start.countDown();
+		for (Thread liker : likers) {
+			liker.join();
+		}
+
+		notificationService.flushPostActivity();
+
+		ArgumentCaptor<Notification> saved = ArgumentCaptor.forClass(Notification.class);
+		verify(notificationRepository, times(1)).save(saved.capture());
+		assertThat(saved.getValue().getActorCount()).isEqualTo(8);
+		assertThat(saved.getValue().getLatestActors().split(",")).hasSize(3);
+		assertThat(saved.getValue().getMessage()).endsWith(" and 7 others liked your post: \"Title\"");
+	}
+
+	@Test
+	void bufferedActorsFoldIntoOpenAggregate() {
+		Notification open = new Notification();
+		open.setId(50L);
+		open.setRecipient(author);
+		open.setSender(user(3L, "bob"));
+		open.setActorCount(2);
+		open.setLatestActors("bob,alice");
+		open.setActorsSince(LocalDateTime.now().minusMinutes(5));
+		when(notificationRepository.findOpenAggregate(eq(1L), eq(42L), eq(Notification.NotificationType.NEW_LIKE),
+				any(), any())).thenReturn(List.of(open));
+		when(postLikeRepository.countLikersSince(42L, 1L,
+				open.getActorsSince().atZone(ZoneId.systemDefault()).toInstant())).thenReturn(3L);
+
+		notificationService.notifyPostActivity(author, user(2L, "alice"), Notification.NotificationType.NEW_LIKE,
+				"liked your post: \"Title\"", post, Instant.now());
+		notificationService.notifyPostActivity(author, user(4L, "dave"), Notification.NotificationType.NEW_LIKE,
+				"liked your post: \"Title\"", post, Instant.now());
+		// Liking twice within one flush still counts once
+		notificationService.notifyPostActivity(author, user(4L, "dave"), Notification.NotificationType.NEW_LIKE,
+				"liked your post: \"Title\"", post, Instant.now());
+		notificationService.flushPostActivity();
+
+		verify(notificationRepository, never()).save(any());
+		assertThat(open.getActorCount()).isEqualTo(3);
+		assertThat(open.getLatestActors()).isEqualTo("dave,alice,bob");
+		assertThat(open.getMessage()).isEqualTo("dave and 2 others liked your post: \"Title\"");
+	}
+
+	@Test
+	void togglingLikerIsCountedOnce() {
+		Notification open = new Notification();
+		open.setId(50L);
+		open.setRecipient(author);
+		open.setActorCount(4);
+		open.setLatestActors("dave,bob,alice");
+		open.setActorsSince(LocalDateTime.now().minusMinutes(5));
+		when(notificationRepository.findOpenAggregate(eq(1L), eq(42L), eq(Notification.NotificationType.NEW_LIKE),
+				any(), any())).thenReturn(List.of(open));
+		// carol liked before the latest three and keeps unliking and liking again
+		when(postLikeRepository.countLikersSince(eq(42L), eq(1L), any())).thenReturn(4L);
+
+		for (int round = 0; round < 3; round++) {
+			notificationService.notifyPostActivity(author, user(5L, "carol"), Notification.NotificationType.NEW_LIKE,
+					"liked your post: \"Title\"", post, Instant.now());
+			notificationService.flushPostActivity();
+		}
+
+		assertThat(open.getActorCount()).isEqualTo(4);
+		assertThat(open.getMessage()).isEqualTo("carol and 3 others liked your post: \"Title\"");
+	}
+
+	@Test
+	void transientFailureKeepsActivityForNextFlush() {
+		when(notificationRepository.findOpenAggregate(eq(1L), eq(42L), eq(Notification.NotificationType.NEW_LIKE),
+				any(), any())).thenThrow(new TransientDataAccessResourceException("connection reset"))
+				.thenReturn(List.of());
+
+		notificationService.notifyPostActivity(author, user(2L, "alice"), Notification.NotificationType.NEW_LIKE,
+				"liked your post: \"Title\"", post, Instant.now());
+		notificationService.flushPostActivity();
+		verify(notificationRepository, never()).save(any());
+		notificationService.notifyPostActivity(author, user(3L, "bob"), Notification.NotificationType.NEW_LIKE,
+				"liked your post: \"Title\"", post, Instant.now());
+		notificationService.flushPostActivity();
+
+		ArgumentCaptor<Notification> saved = ArgumentCaptor.forClass(Notification.class);
+		verify(notificationRepository).save(saved.capture());
+		assertThat(saved.getValue().getActorCount()).isEqualTo(2);
+		assertThat(saved.getValue().getLatestActors().split(",")).containsExactlyInAnyOrder("alice", "bob");
+	}
+
+	@Test
+	void selfActivityIsIgnored() {
+		notificationService.notifyPostActivity(author, author, Notification.NotificationType.NEW_COMMENT,
+				"commented on your post: \"Title\"", post, Instant.now());
+		notificationService.flushPostActivity();
+
+		verifyNoInteractions(notificationRepository);
+	}
+
+	private static User user(Long id, String username) {
+		User user = new User();
+		user.setId(id);
+		user.setUsername(username);
+		return user;
+	}
+}
@@ -0,0 +1,118 @@
+package com.zerooneblog.api.service;
+
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.*;
+import com.zerooneblog.api.interfaces.dto.NotificationSyncDto;
+import com.zerooneblog.api.service.event.PostPublishedEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Fan-out rows carry their write time: a follower syncing or marking everything read while the author's
+// fan-out is queued or still being written must still get the later notifications as new and unread
+class NotificationFanOutSyncTests {
+
+	@Test
+	void tokenIssuedMidFanOutStillSeesLaterChunks() throws InterruptedException {
+		User follower = new User();
+		follower.setId(3L);
+		follower.setUsername("late");
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByUsername("late")).thenReturn(Optional.of(follower));
+		NotificationRepository notificationRepository = mock(NotificationRepository.class);
+		NotificationService notificationService = new NotificationService(notificationRepository, userRepository,
+				mock(PostRepository.class), mock(PostLikeRepository.class), mock(CommentRepository.class),
+				mock(UserNotificationStateRepository.class),
+				mock(NotificationTombstoneRepository.class), mock(WebSocketNotificationService.class),
+				mock(PlatformTransactionManager.class), 60, 5000, 168, 0);
+
+		// Chunk of one follower each: "early" first, then "late" (who syncs in between), then nobody
+		List<LocalDateTime> chunkUpdatedAt = new ArrayList<>();
+		List<String> tokens = new ArrayList<>();
+		InsertedNotification early = inserted(10L, 2L, "early");
+		InsertedNotification late = inserted(11L, 3L, "late");
+		when(notificationRepository.insertFollowerNotifications(eq(1L), eq("author"), eq(42L), anyString(), any(),
+				anyLong(), eq(1))).thenAnswer(invocation -> {
+					chunkUpdatedAt.add(invocation.getArgument(4));
+					long afterFollowerId = invocation.getArgument(5);
+					if (afterFollowerId == 0L) {
+						NotificationSyncDto sync = notificationService.syncNotifications("late", null, 50);
+						tokens.add(sync.getNextToken());
+						Thread.sleep(2);
+						return List.of(early);
+					}
+					return afterFollowerId == 2L ? List.of(late) : List.of();
+				});
+
+		NotificationFanOutService fanOutService = new NotificationFanOutService(notificationRepository,
+				mock(WebSocketNotificationService.class), mock(PlatformTransactionManager.class), 1, 10, 1, 3, 1);
+		fanOutService.onPostPublished(new PostPublishedEvent(42L, 1L, "author", "Title",
+				Instant.now().minusSeconds(60)));
+		fanOutService.shutdown();
+
+		assertThat(chunkUpdatedAt).hasSize(3);
+		assertThat(tokens).hasSize(1);
+		// The second chunk's row sorts after the token handed out while the first chunk was written
+		NotificationSyncToken token = NotificationSyncToken.decode(tokens.get(0));
+		NotificationSyncToken lateRow = new NotificationSyncToken(chunkUpdatedAt.get(1), late.getId());
+		assertThat(lateRow.isAfter(token)).isTrue();
+		assertThat(fanOutService.getStats().getCompleted()).isEqualTo(1);
+	}
+
+	@Test
+	void markAllReadWhileQueuedLeavesNewPostUnread() throws InterruptedException {
+		User follower = new User();
+		follower.setId(2L);
+		follower.setUsername("reader");
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findById(2L)).thenReturn(Optional.of(follower));
+		UserNotificationStateRepository stateRepository = mock(UserNotificationStateRepository.class);
+		NotificationRepository notificationRepository = mock(NotificationRepository.class);
+		NotificationService notificationService = new NotificationService(notificationRepository, userRepository,
+				mock(PostRepository.class), mock(PostLikeRepository.class), mock(CommentRepository.class),
+				stateRepository, mock(NotificationTombstoneRepository.class),
+				mock(WebSocketNotificationService.class), mock(PlatformTransactionManager.class), 60, 5000, 168,
+				5000);
+		List<LocalDateTime> insertedAt = new ArrayList<>();
+		InsertedNotification row = inserted(10L, 2L, "reader");
+		when(notificationRepository.insertFollowerNotifications(eq(1L), eq("author"), eq(42L), anyString(), any(),
+				anyLong(), eq(500))).thenAnswer(invocation -> {
+					insertedAt.add(invocation.getArgument(4));
+					return List.of(row);
+				});
+
+		// The post was published a moment ago; the reader marks everything read before the fan-out job runs
+		Instant publishedAt = Instant.now().minusMillis(50);
+		notificationService.markAllAsRead(2L);
+		ArgumentCaptor<LocalDateTime> watermark = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(stateRepository).markAllRead(eq(2L), watermark.capture());
+		Thread.sleep(2);
+
+		NotificationFanOutService fanOutService = new NotificationFanOutService(notificationRepository,
+				mock(WebSocketNotificationService.class), mock(PlatformTransactionManager.class), 1, 10, 500, 3, 1);
+		fanOutService.onPostPublished(new PostPublishedEvent(42L, 1L, "author", "Title", publishedAt));
+		fanOutService.shutdown();
+
+		// Counted as unread by the insert, so it has to list as unread too: created after the watermark
+		assertThat(insertedAt).hasSize(1);
+		assertThat(insertedAt.get(0)).isAfter(watermark.getValue());
+	}
+
+	private static InsertedNotification inserted(Long id, Long recipientId, String username) {
+		InsertedNotification inserted = mock(InsertedNotification.class);
+		when(inserted.getId()).thenReturn(id);
+		when(inserted.getRecipientId()).thenReturn(recipientId);
+		when(inserted.getRecipientUsername()).thenReturn(username);
+		return inserted;
+	}
+}
@@ -0,0 +1,115 @@
+package com.zerooneblog.api.service;
+
+import com.zerooneblog.api.domain.Post;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.interfaces.dto.PostMediaDto;
+import com.zerooneblog.api.interfaces.dto.PostResponse;
+import com.zerooneblog.api.service.mapper.PostMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// A write only keeps racing loads of the same post out of the cache; view flushes update entries in place
+class PostCacheTests {
+
+	private PostRepository postRepository;
+	private PostMapper postMapper;
+	private PostCache postCache;
+
+	@BeforeEach
+	void setUp() {
+		postRepository = mock(PostRepository.class);
+		postMapper = mock(PostMapper.class);
+		postCache = new PostCache(postRepository, postMapper, 100);
+		when(postMapper.toDto(any(Post.class), isNull())).thenAnswer(invocation -> {
+			Post post = invocation.getArgument(0);
+			PostResponse dto = new PostResponse();
+			dto.setId(post.getId());
+			dto.setMediaFiles(new ArrayList<>());
+			return dto;
+		});
+	}
+
+	@Test
+	void invalidatingAnotherPostDuringLoadStillCaches() {
+		when(postRepository.findById(1L)).thenAnswer(invocation -> {
+			postCache.invalidate(2L);
+			return Optional.of(post(1L));
+		});
+
+		postCache.get(1L);
+		postCache.get(1L);
+
+		verify(postRepository, times(1)).findById(1L);
+		assertThat(postCache.getStats().getHits()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidatingSamePostDuringLoadSkipsCaching() {
+		when(postRepository.findById(1L)).thenAnswer(invocation -> {
+			postCache.invalidate(1L);
+			return Optional.of(post(1L));
+		}).thenReturn(Optional.of(post(1L)));
+
+		postCache.get(1L);
+		postCache.get(1L);
+
+		verify(postRepository, times(2)).findById(1L);
+	}
+
+	@Test
+	void flushedViewsAreOverlaidWithoutReload() {
+		when(postRepository.findById(1L)).thenReturn(Optional.of(post(1L)));
+		postCache.get(1L);
+
+		postCache.recordViews(1L, 5, 3);
+		postCache.recordViews(1L, 2, 4);
+		PostResponse response = postCache.get(1L).toResponse(false);
+
+		verify(postRepository, times(1)).findById(1L);
+		assertThat(response.getViewCount()).isEqualTo(7);
+		assertThat(response.getUniqueViewerCount()).isEqualTo(4);
+		assertThat(postCache.getStats().getInvalidations()).isZero();
+	}
+
+	@Test
+	void viewsFlushedDuringLoadSkipCaching() {
+		when(postRepository.findById(1L)).thenAnswer(invocation -> {
+			postCache.recordViews(1L, 5, 3);
+			return Optional.of(post(1L));
+		}).thenReturn(Optional.of(post(1L)));
+
+		postCache.get(1L);
+		postCache.get(1L);
+
+		verify(postRepository, times(2)).findById(1L);
+	}
+
+	@Test
+	void cachingLeavesMappedDtoUntouched() {
+		List<PostMediaDto> media = new ArrayList<>();
+		PostResponse rendered = new PostResponse();
+		rendered.setId(1L);
+		rendered.setLikedByCurrentUser(true);
+		rendered.setMediaFiles(media);
+
+		CachedPost cached = new CachedPost(rendered);
+
+		assertThat(rendered.getMediaFiles()).isSameAs(media);
+		assertThat(rendered.isLikedByCurrentUser()).isTrue();
+		assertThat(cached.toResponse(false).isLikedByCurrentUser()).isFalse();
+	}
+
+	private static Post post(Long id) {
+		Post post = new Post();
+		post.setId(id);
+		return post;
+	}
+}
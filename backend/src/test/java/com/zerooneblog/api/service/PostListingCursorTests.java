@@ -0,0 +1,57 @@
+package com.zerooneblog.api.service;
+
+import com.zerooneblog.api.infrastructure.persistence.PostKey;
+import com.zerooneblog.api.infrastructure.persistence.PostRepository;
+import com.zerooneblog.api.interfaces.dto.PostsResponseDto;
+import com.zerooneblog.api.service.mapper.PostMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The next cursor comes from the fetched keys, not from whatever survived hydration
+class PostListingCursorTests {
+
+	@Test
+	void vanishedPageStillPointsPastItsLastKey() {
+		PostRepository postRepository = mock(PostRepository.class);
+		PostMapper postMapper = mock(PostMapper.class);
+		// Every post of the page was deleted between fetching the keys and hydrating them
+		when(postRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of());
+		when(postMapper.toDtoList(anyList(), any())).thenReturn(List.of());
+		PostListingService listingService = new PostListingService(postRepository, postMapper);
+		Instant createdAt = Instant.parse("2026-01-02T03:04:05.123456Z");
+
+		PostsResponseDto page = listingService.toCursorPage(
+				List.of(key(9L, createdAt.plusSeconds(2)), key(8L, createdAt), key(7L, createdAt.minusSeconds(1))),
+				2, null);
+
+		assertThat(page.getContent()).isEmpty();
+		assertThat(page.getNextCursor()).isNotNull();
+		PostCursor next = PostCursor.decode(page.getNextCursor());
+		assertThat(next.getId()).isEqualTo(8L);
+		assertThat(next.getCreatedAt()).isEqualTo(createdAt);
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		PostRepository postRepository = mock(PostRepository.class);
+		PostMapper postMapper = mock(PostMapper.class);
+		PostListingService listingService = new PostListingService(postRepository, postMapper);
+
+		PostsResponseDto page = listingService.toCursorPage(List.of(key(9L, Instant.now())), 2, null);
+
+		assertThat(page.getNextCursor()).isNull();
+	}
+
+	private static PostKey key(Long id, Instant createdAt) {
+		PostKey key = mock(PostKey.class);
+		when(key.getId()).thenReturn(id);
+		when(key.getCreatedAt()).thenReturn(createdAt);
+		return key;
+	}
+}
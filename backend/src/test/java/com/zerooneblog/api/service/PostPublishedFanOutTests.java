@@ -0,0 +1,91 @@
+package com.zerooneblog.api.service;
+
+import com.zerooneblog.api.domain.Post;
+import com.zerooneblog.api.domain.User;
+import com.zerooneblog.api.infrastructure.persistence.*;
+import com.zerooneblog.api.interfaces.dto.NotificationDto;
+import com.zerooneblog.api.interfaces.dto.PostDTO;
+import com.zerooneblog.api.service.event.PostPublishedEvent;
+import com.zerooneblog.api.service.mapper.PostMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Followers of a pulled (high-follower) author skip the timeline fan-out but still get NEW_POST notifications
+class PostPublishedFanOutTests {
+
+	private static final long PULL_THRESHOLD = 100;
+
+	@Test
+	void pulledAuthorFollowersReceiveNewPostNotification() throws InterruptedException {
+		User author = new User();
+		author.setId(1L);
+		author.setUsername("celebrity");
+		author.setFollowerCount(PULL_THRESHOLD * 10);
+
+		PostRepository postRepository = mock(PostRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		TimelineEntryRepository timelineEntryRepository = mock(TimelineEntryRepository.class);
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		when(userRepository.findByUsername("celebrity")).thenReturn(Optional.of(author));
+		when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
+			Post post = invocation.getArgument(0);
+			post.setId(42L);
+			post.setCreatedAt(Instant.now());
+			return post;
+		});
+
+		TimelineService timelineService = new TimelineService(timelineEntryRepository,
+				mock(TimelineSeedRepository.class), mock(PlatformTransactionManager.class), 800, 20, PULL_THRESHOLD, 500);
+		PostService postService = new PostService(postRepository, userRepository, mock(UserService.class),
+				mock(PostMapper.class), mock(FileStorageService.class), mock(PostMediaRepository.class),
+				timelineService, mock(TrendingService.class), mock(PostListingService.class), mock(PostCache.class),
+				mock(LikedPostsCache.class), mock(UserNotificationStateRepository.class),
+				mock(NotificationTombstoneRepository.class), eventPublisher);
+
+		postService.createPost(new PostDTO("Hello", "World", null), "celebrity");
+
+		// No timeline rows for a pulled author...
+		verify(timelineEntryRepository, never()).fanOutPost(anyLong(), anyLong(), any());
+		// ...but the publish event still goes out
+		ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+		verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+		PostPublishedEvent published = events.getAllValues().stream()
+				.filter(PostPublishedEvent.class::isInstance)
+				.map(PostPublishedEvent.class::cast)
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("PostPublishedEvent was not published"));
+		assertThat(published.getAuthorId()).isEqualTo(1L);
+		assertThat(published.getPostId()).isEqualTo(42L);
+
+		// The fan-out pipeline writes and pushes the follower's notification
+		NotificationRepository notificationRepository = mock(NotificationRepository.class);
+		InsertedNotification inserted = mock(InsertedNotification.class);
+		when(inserted.getId()).thenReturn(7L);
+		when(inserted.getRecipientId()).thenReturn(2L);
+		when(inserted.getRecipientUsername()).thenReturn("follower");
+		when(notificationRepository.insertFollowerNotifications(eq(1L), eq("celebrity"), eq(42L), anyString(),
+				any(), eq(0L), anyInt())).thenReturn(List.of(inserted));
+		WebSocketNotificationService webSocketService = mock(WebSocketNotificationService.class);
+		when(webSocketService.isOnline("follower")).thenReturn(true);
+		NotificationFanOutService fanOutService = new NotificationFanOutService(notificationRepository,
+				webSocketService, mock(PlatformTransactionManager.class), 1, 10, 500, 3, 1);
+
+		fanOutService.onPostPublished(published);
+		fanOutService.shutdown();
+
+		ArgumentCaptor<NotificationDto> pushed = ArgumentCaptor.forClass(NotificationDto.class);
+		verify(webSocketService).sendNotificationToUser(eq("follower"), pushed.capture());
+		assertThat(pushed.getValue().getPostId()).isEqualTo(42L);
+		assertThat(fanOutService.getStats().getCompleted()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,44 @@
+package com.zerooneblog.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Search cursors round-trip the exact float rank and reject anything they did not produce
+class SearchCursorTests {
+
+	@Test
+	void roundTripsRankExactly() {
+		for (float rank : new float[] { 0f, 0.1f, 1.0E-30f, 12.345678f, Float.MIN_VALUE, -0f }) {
+			SearchCursor decoded = SearchCursor.decode(new SearchCursor(rank, 42L).encode());
+
+			assertThat(Float.floatToIntBits(decoded.getRank())).isEqualTo(Float.floatToIntBits(rank));
+			assertThat(decoded.getId()).isEqualTo(42L);
+		}
+	}
+
+	@Test
+	void blankMeansFirstPage() {
+		assertThat(SearchCursor.decode(null)).isNull();
+		assertThat(SearchCursor.decode("  ")).isNull();
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		for (String cursor : new String[] { "not base64!", encode("1:2:3"), encode("12"), encode("abc:1"),
+				encode("1:abc"), encode(":"), encode("1:99999999999999999999") }) {
+			assertThatThrownBy(() -> SearchCursor.decode(cursor))
+					.as("cursor %s", cursor)
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessage("Invalid cursor.");
+		}
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,101 @@
+package com.zerooneblog.api.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BM25 ranking over live documents: tombstoned, replaced and hidden documents never surface
+class InvertedIndexTests {
+
+	private static final long NO_BUDGET = Long.MAX_VALUE;
+
+	@Test
+	void ranksByTermFrequencyRarityAndLength() {
+		InvertedIndex index = new InvertedIndex(NO_BUDGET);
+		index.put(1, Map.of("java", 1, "spring", 1), 10, false);
+		index.put(2, Map.of("java", 3, "spring", 1), 10, false);
+		index.put(3, Map.of("java", 1), 2, false);
+		index.put(4, Map.of("kotlin", 1, "spring", 1), 10, false);
+
+		// More occurrences beat fewer; at the same frequency the shorter document wins
+		assertThat(ids(index.search(List.of("java"), false, null, null, 10))).containsExactly(2L, 3L, 1L);
+		// "kotlin" is in one document and "java" in three, so one "kotlin" outweighs three "java"
+		assertThat(ids(index.search(List.of("kotlin", "java"), false, null, null, 10))).containsExactly(4L, 2L, 3L, 1L);
+	}
+
+	@Test
+	void tombstonedDocumentsDropOutOfRankingAndCounts() {
+		InvertedIndex index = new InvertedIndex(NO_BUDGET);
+		index.put(1, Map.of("java", 3), 5, false);
+		index.put(2, Map.of("java", 2), 5, false);
+		index.put(3, Map.of("java", 1), 5, false);
+
+		assertThat(index.remove(1)).isTrue();
+		assertThat(index.remove(1)).isFalse();
+		// Replacing a document tombstones its old version: the old terms no longer match
+		index.put(2, Map.of("kotlin", 1), 5, false);
+
+		InvertedIndex.Hits java = index.search(List.of("java"), true, null, null, 10);
+		assertThat(ids(java)).containsExactly(3L);
+		assertThat(java.getMatchCount()).isEqualTo(1);
+		assertThat(ids(index.search(List.of("kotlin"), true, null, null, 10))).containsExactly(2L);
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void compactionKeepsTheRankingOfLiveDocuments() {
+		InvertedIndex index = new InvertedIndex(NO_BUDGET);
+		for (long id = 1; id <= 3000; id++) {
+			index.put(id, Map.of("common", 1, "rank", (int) (id % 7) + 1), 10, false);
+		}
+		List<Long> expected = ids(index.search(List.of("rank"), false, null, null, 50)).stream()
+				.filter(id -> id % 2 == 0)
+				.limit(20)
+				.collect(Collectors.toList());
+
+		// Removing every odd id passes the tombstone threshold and rewrites the postings
+		for (long id = 1; id <= 3000; id += 2) {
+			index.remove(id);
+		}
+
+		InvertedIndex.Hits hits = index.search(List.of("rank"), false, null, null, 20);
+		assertThat(ids(hits)).containsExactlyElementsOf(expected);
+		assertThat(hits.getMatchCount()).isEqualTo(1500);
+		assertThat(index.size()).isEqualTo(1500);
+	}
+
+	@Test
+	void hiddenDocumentsMatchOnlyWhenIncluded() {
+		InvertedIndex index = new InvertedIndex(NO_BUDGET);
+		index.put(1, Map.of("java", 1), 5, true);
+		index.put(2, Map.of("java", 1), 5, false);
+
+		assertThat(ids(index.search(List.of("java"), false, null, null, 10))).containsExactly(2L);
+		assertThat(ids(index.search(List.of("java"), true, null, null, 10))).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void keysetPagesDoNotOverlapOnEqualScores() {
+		InvertedIndex index = new InvertedIndex(NO_BUDGET);
+		for (long id = 1; id <= 5; id++) {
+			index.put(id, Map.of("java", 1), 5, false);
+		}
+
+		InvertedIndex.Hits first = index.search(List.of("java"), false, null, null, 2);
+		InvertedIndex.Hit last = first.getHits().get(1);
+		InvertedIndex.Hits second = index.search(List.of("java"), false, last.getScore(), last.getId(), 2);
+
+		// Ties are broken by id, highest first
+		assertThat(ids(first)).containsExactly(5L, 4L);
+		assertThat(ids(second)).containsExactly(3L, 2L);
+		assertThat(ids(index.search(List.of("java"), false, null, null, 0))).isEmpty();
+	}
+
+	private static List<Long> ids(InvertedIndex.Hits hits) {
+		return hits.getHits().stream().map(InvertedIndex.Hit::getId).collect(Collectors.toList());
+	}
+}
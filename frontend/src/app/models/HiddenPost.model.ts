@@ -2,6 +2,7 @@ export interface HiddenPost {
   id: number;
   title: string;
   content: string;
+  excerpt?: string;
   authorUsername: string;
   createdAt: string;
   hidden: boolean;
@@ -6,6 +6,8 @@ export interface Notification {
   senderUsername: string;
   createdAt: string;
   postId: number;
+  actorCount?: number;
+  latestActors?: string[];
 }
 
 export interface PagedNotifications {
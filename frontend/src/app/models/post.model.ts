@@ -10,6 +10,7 @@ export interface  Post {
   id: number;
   title: string;
   content: string;
+  excerpt?: string;
   authorUsername: string;
   authorId: number;
   createdAt: string;
@@ -21,5 +22,7 @@ export interface  Post {
   mediaFiles?: PostMedia[];
   
   commentCount?: number;
+  viewCount?: number;
+  uniqueViewerCount?: number;
   reportedCount: number;
 }
\ No newline at end of file
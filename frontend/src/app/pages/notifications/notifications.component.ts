@@ -83,9 +83,9 @@ export class NotificationsComponent implements OnInit, OnDestroy {
     // Listen for new notifications
     this.newNotificationSubscription = this.notificationService.getNewNotificationStream().subscribe(notification => {
       if (notification) {
-        // Add new notification to the list based on active tab
+        // Add new notification to the list based on active tab; an aggregated update replaces its earlier copy
         if (this.activeTab === 'all' || this.activeTab === 'unread') {
-          this.notifications = [notification, ...this.notifications];
+          this.notifications = [notification, ...this.notifications.filter(n => n.id !== notification.id)];
         }
       }
     });